@@ -0,0 +1,70 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.auditing.AuditingHandler;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.common.entity.AuditListener;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description AuditingEntityListener (member.auditing.fast=false) vs AuditListener fast path
+ **********************************************************************************************************************/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AuditingBenchmark {
+
+    private static final int BATCH = 1000;
+
+    @Param({"false", "true"})
+    boolean fast;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    TransactionTemplate transactionTemplate;
+    AuditListener listener;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkSupport.start("member.auditing.fast=" + fast);
+        memberRepository = context.getBean(MemberRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        listener = new AuditListener(() -> context.getBean(AuditingHandler.class),
+                () -> context.getBean(AuditorAware.class), fast);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // 리스너만: 한 트랜잭션에서 BATCH 건 @PrePersist + @PreUpdate
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public List<Member> listenerOnly() {
+        List<Member> members = BenchmarkSupport.newMembers(BATCH);
+        return transactionTemplate.execute(status -> {
+            for (Member member : members) {
+                listener.touchForCreate(member);
+                listener.touchForUpdate(member);
+            }
+            return members;
+        });
+    }
+
+    // insert 포함 전체 경로
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int saveAllBatched() {
+        return memberRepository.saveAllBatched(BenchmarkSupport.newMembers(BATCH), 100);
+    }
+}
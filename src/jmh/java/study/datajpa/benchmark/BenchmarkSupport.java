@@ -0,0 +1,82 @@
+package study.datajpa.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.DataJpaApplication;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description boots the application against in-memory h2 for jmh benchmarks
+ **********************************************************************************************************************/
+public abstract class BenchmarkSupport {
+
+    private BenchmarkSupport() {
+    }
+
+    public static ConfigurableApplicationContext start(String... properties) {
+        return start(WebApplicationType.NONE, properties);
+    }
+
+    public static ConfigurableApplicationContext startWeb(String... properties) {
+        return start(WebApplicationType.SERVLET, concat(properties, "server.port=0"));
+    }
+
+    private static ConfigurableApplicationContext start(WebApplicationType webApplicationType, String... properties) {
+        List<String> defaults = new ArrayList<>(Arrays.asList(
+                "spring.datasource.url=jdbc:h2:mem:jmh;DB_CLOSE_DELAY=-1",
+                "logging.level.org.hibernate.SQL=warn",
+                "logging.level.p6spy=warn",
+                // 부팅 후 seed 는 백그라운드로 저장하므로 측정 중인 쿼리와 경쟁한다. 데이터는 seed() 로 직접 넣는다
+                "member.seed.count=0"
+        ));
+        defaults.addAll(Arrays.asList(properties));
+        // default properties 는 application.yml 보다 우선순위가 낮으므로 커맨드라인 인자로 넘긴다
+        return new SpringApplicationBuilder(DataJpaApplication.class)
+                .web(webApplicationType)
+                .run(defaults.stream().map(property -> "--" + property).toArray(String[]::new));
+    }
+
+    private static String[] concat(String[] properties, String property) {
+        String[] result = Arrays.copyOf(properties, properties.length + 1);
+        result[properties.length] = property;
+        return result;
+    }
+
+    // member 10명당 team 1개, age 는 0 ~ 99 반복. 저장된 member id 반환
+    public static long[] seed(ConfigurableApplicationContext context, int memberCount) {
+        TeamRepository teamRepository = context.getBean(TeamRepository.class);
+        MemberRepository memberRepository = context.getBean(MemberRepository.class);
+
+        List<Team> teams = new ArrayList<>();
+        for (int i = 0; i < Math.max(memberCount / 10, 1); i++) {
+            teams.add(new Team("team" + i));
+        }
+        teamRepository.saveAll(teams);
+
+        List<Member> members = new ArrayList<>(memberCount);
+        for (int i = 0; i < memberCount; i++) {
+            members.add(new Member("member" + i, i % 100, teams.get(i % teams.size())));
+        }
+        memberRepository.saveAllBatched(members, 1000);
+
+        return members.stream().mapToLong(Member::getId).toArray();
+    }
+
+    public static List<Member> newMembers(int count) {
+        List<Member> members = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            members.add(new Member("new" + i, i % 100));
+        }
+        return members;
+    }
+}
@@ -0,0 +1,85 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description rows/sec of saveAllBatched vs the identity, one transaction per row save path, up to 1M rows
+ **********************************************************************************************************************/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1, time = 1)
+@Measurement(iterations = 3, time = 1)
+public class BulkInsertBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    // 한 번의 호출이 rows 건을 모두 저장 (iteration 시간보다 길어서 iteration 마다 한 번)
+    @Param({"100000", "1000000"})
+    int rows;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    EntityManager em;
+    TransactionTemplate transactionTemplate;
+
+    // 결과는 ops/s 대신 이 카운터의 rows/s 로 비교
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Inserted {
+        public long rows;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkSupport.start();
+        memberRepository = context.getBean(MemberRepository.class);
+        em = context.getBean(EntityManager.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    // 저장한 행은 호출마다 비운다 (측정 밖)
+    @TearDown(Level.Invocation)
+    public void truncate() {
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createNativeQuery("truncate table member").executeUpdate();
+            em.createNativeQuery("truncate table identity_member").executeUpdate();
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // sequence(pooled, allocationSize 50) + jdbc batch, member 는 미리 만들지 않고 하나씩 생성
+    @Benchmark
+    public int saveAllBatched(Inserted inserted) {
+        int saved = memberRepository.saveAllBatched(
+                () -> IntStream.range(0, rows).mapToObj(i -> new Member("bulk" + i, i % 100)).iterator(), BATCH_SIZE);
+        inserted.rows += saved;
+        return saved;
+    }
+
+    // 변경 전 저장 경로: 건마다 repository.save 처럼 트랜잭션 하나, identity insert, batch 없음
+    @Benchmark
+    public int identityPerRow(Inserted inserted) {
+        for (int i = 0; i < rows; i++) {
+            IdentityMember member = new IdentityMember("bulk" + i, i % 100);
+            transactionTemplate.executeWithoutResult(status -> em.persist(member));
+        }
+        inserted.rows += rows;
+        return rows;
+    }
+}
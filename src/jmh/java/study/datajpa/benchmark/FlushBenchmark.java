@@ -0,0 +1,73 @@
+package study.datajpa.benchmark;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.PersistentAttributeInterceptable;
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.entity.Member;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description flush of 10k managed members with 1% modified (run with and without -Penhance)
+ **********************************************************************************************************************/
+@Slf4j
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FlushBenchmark {
+
+    private static final int MEMBER_COUNT = 10_000;
+    private static final int MODIFY_EVERY = 100;
+
+    ConfigurableApplicationContext context;
+    EntityManagerFactory emf;
+    EntityManager em;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkSupport.start();
+        emf = context.getBean(EntityManagerFactory.class);
+        BenchmarkSupport.seed(context, MEMBER_COUNT);
+        log.info("member enhanced: dirty tracking={}, lazy={}",
+                SelfDirtinessTracker.class.isAssignableFrom(Member.class),
+                PersistentAttributeInterceptable.class.isAssignableFrom(Member.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // findAll(@EntityGraph team) 과 같은 조회로 10k 건을 영속화하고 1% 만 변경
+    @Setup(Level.Invocation)
+    public void load() {
+        em = emf.createEntityManager();
+        em.getTransaction().begin();
+        List<Member> members = em.createQuery("select m from Member m", Member.class)
+                .setHint("javax.persistence.fetchgraph", em.getEntityGraph("Member.all"))
+                .getResultList();
+        for (int i = 0; i < members.size(); i += MODIFY_EVERY) {
+            Member member = members.get(i);
+            member.setAge(member.getAge() + 1);
+        }
+    }
+
+    // 데이터를 그대로 두기 위해 매번 롤백
+    @TearDown(Level.Invocation)
+    public void rollback() {
+        em.getTransaction().rollback();
+        em.close();
+    }
+
+    @Benchmark
+    public void flush() {
+        em.flush();
+    }
+}
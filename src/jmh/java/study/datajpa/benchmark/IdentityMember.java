@@ -0,0 +1,33 @@
+package study.datajpa.benchmark;
+
+import study.datajpa.common.entity.BaseEntity;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description member columns with identity ids, the insert baseline before sequence ids and jdbc batching
+ **********************************************************************************************************************/
+@Entity
+public class IdentityMember extends BaseEntity {
+
+    // identity 는 persist 시점에 insert 가 나가야 id 를 알 수 있어 hibernate 가 jdbc batch 를 쓰지 않음
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "identity_member_id")
+    private Long id;
+    private String name;
+    private int age;
+
+    protected IdentityMember() {
+    }
+
+    public IdentityMember(String name, int age) {
+        this.name = name;
+        this.age = age;
+    }
+}
@@ -0,0 +1,66 @@
+package study.datajpa.benchmark;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description findByNames with 1 ~ 10,000 names (latency + hibernate query plan cache misses)
+ **********************************************************************************************************************/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class InClauseBenchmark {
+
+    private static final int MEMBER_COUNT = 20_000;
+
+    @Param({"1", "10", "100", "1000", "10000"})
+    int maxListSize;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    Statistics statistics;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkSupport.start();
+        memberRepository = context.getBean(MemberRepository.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        BenchmarkSupport.seed(context, MEMBER_COUNT);
+    }
+
+    @TearDown(Level.Iteration)
+    public void printPlanCache() {
+        // padding 이 없으면 목록 길이마다 새 plan 이 생겨 miss 가 계속 늘어난다
+        System.out.printf("%n[maxListSize=%d] query plan cache hit=%d miss=%d%n",
+                maxListSize, statistics.getQueryPlanCacheHitCount(), statistics.getQueryPlanCacheMissCount());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // 매번 길이가 다른 목록 (1 ~ maxListSize)
+    @Benchmark
+    public List<Member> findByNames() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int size = random.nextInt(maxListSize) + 1;
+        List<String> names = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            names.add("member" + random.nextInt(MEMBER_COUNT));
+        }
+        return memberRepository.findByNames(names);
+    }
+}
@@ -0,0 +1,72 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.OptimisticLockingFailureException;
+import study.datajpa.service.MemberService;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description pessimistic vs optimistic update under contention (sample mode reports p99)
+ **********************************************************************************************************************/
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(8)
+public class MemberContentionBenchmark {
+
+    private static final int THREADS = 8;
+
+    // same: 모든 스레드가 같은 member 갱신, disjoint: 스레드마다 다른 member
+    @Param({"same", "disjoint"})
+    String target;
+
+    ConfigurableApplicationContext context;
+    MemberService memberService;
+    long[] memberIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkSupport.start();
+        memberService = context.getBean(MemberService.class);
+        memberIds = BenchmarkSupport.seed(context, THREADS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Worker {
+        int index;
+
+        @Setup(Level.Trial)
+        public void setUp(ThreadParams threadParams) {
+            index = threadParams.getThreadIndex() % THREADS;
+        }
+    }
+
+    @Benchmark
+    public int pessimistic(Worker worker) {
+        return memberService.increaseAgeWithLock(memberId(worker));
+    }
+
+    // 재시도를 모두 소진한 실패도 측정에 포함 (-1)
+    @Benchmark
+    public int optimistic(Worker worker) {
+        try {
+            return memberService.increaseAge(memberId(worker));
+        } catch (OptimisticLockingFailureException e) {
+            return -1;
+        }
+    }
+
+    private long memberId(Worker worker) {
+        return "same".equals(target) ? memberIds[0] : memberIds[worker.index];
+    }
+}
@@ -0,0 +1,102 @@
+package study.datajpa.benchmark;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description closed-loop load test: N clients hammer a member endpoint for a fixed duration
+ *              ./gradlew loadTest -Pclients=1000 -Pseconds=30 -Ppath=/members
+ **********************************************************************************************************************/
+public class MemberEndpointLoadTest {
+
+    private static final int MAX_SAMPLES_PER_CLIENT = 2_000;
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        String path = args.length > 2 ? args[2] : "/members";
+
+        ConfigurableApplicationContext context = BenchmarkSupport.startWeb("server.tomcat.threads.max=200");
+        BenchmarkSupport.seed(context, 10_000);
+        URL url = new URL("http://localhost:" + context.getEnvironment().getProperty("local.server.port") + path);
+
+        Map<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+        long[][] latencies = new long[clients][];
+        AtomicInteger[] sampleCounts = new AtomicInteger[clients];
+        CountDownLatch done = new CountDownLatch(clients);
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+
+        for (int c = 0; c < clients; c++) {
+            int client = c;
+            latencies[client] = new long[MAX_SAMPLES_PER_CLIENT];
+            sampleCounts[client] = new AtomicInteger();
+            Thread thread = new Thread(() -> {
+                try {
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        int status = request(url);
+                        long elapsed = System.nanoTime() - start;
+                        statusCounts.computeIfAbsent(status, k -> new LongAdder()).increment();
+                        int n = sampleCounts[client].getAndIncrement();
+                        if (n < MAX_SAMPLES_PER_CLIENT) {
+                            latencies[client][n] = elapsed;
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }, "client-" + client);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        done.await();
+
+        long total = statusCounts.values().stream().mapToLong(LongAdder::sum).sum();
+        long[] all = Arrays.stream(latencies)
+                .flatMapToLong(Arrays::stream)
+                .filter(latency -> latency > 0)
+                .sorted()
+                .toArray();
+        System.out.printf("clients=%d duration=%ds path=%s%n", clients, seconds, path);
+        System.out.printf("throughput=%.1f req/s status=%s%n", total / (double) seconds, statusCounts);
+        if (all.length > 0) {
+            System.out.printf("latency p50=%.2fms p99=%.2fms max=%.2fms%n",
+                    percentile(all, 0.50), percentile(all, 0.99), all[all.length - 1] / 1e6);
+        }
+        context.close();
+    }
+
+    private static int request(URL url) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            connection.setConnectTimeout(5_000);
+            connection.setReadTimeout(15_000);
+            int status = connection.getResponseCode();
+            try (InputStream body = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+                // keep-alive 재사용을 위해 body 를 끝까지 읽는다
+                byte[] buffer = new byte[8192];
+                while (body != null && body.read(buffer) != -1) {
+                }
+            }
+            return status;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.round(percentile * (sorted.length - 1)))] / 1e6;
+    }
+}
@@ -0,0 +1,84 @@
+package study.datajpa.benchmark;
+
+import lombok.extern.slf4j.Slf4j;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jol.info.GraphLayout;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.index.MemberIndex;
+import study.datajpa.repository.index.MemberRow;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description MemberIndex vs HashMap<String, List<Member>> lookup latency and footprint (printed at setup)
+ **********************************************************************************************************************/
+@Slf4j
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MemberIndexBenchmark {
+
+    @Param({"100000", "1000000"})
+    int memberCount;
+
+    MemberIndex index;
+    Map<String, List<Member>> baseline;
+
+    // 이름은 10명씩 중복, age 는 0 ~ 99 반복 (BenchmarkSupport.seed 와 같은 분포)
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new MemberIndex(memberCount);
+        baseline = new HashMap<>();
+        for (int i = 0; i < memberCount; i++) {
+            String name = "member" + (i / 10);
+            Member member = new Member(name, i % 100);
+            member.setId((long) i + 1);
+            baseline.computeIfAbsent(name, key -> new ArrayList<>()).add(member);
+            index.upsert(i + 1, name, i % 100);
+        }
+
+        long baselineBytes = GraphLayout.parseInstance(baseline).totalSize();
+        long indexHeapBytes = GraphLayout.parseInstance(index).totalSize();
+        log.info("footprint ({} members): HashMap<String, List<Member>> {} bytes, MemberIndex {} bytes heap + {} bytes off-heap",
+                memberCount, baselineBytes, indexHeapBytes, index.offHeapBytes());
+    }
+
+    @Benchmark
+    public List<MemberRow> indexFindByNameAndAgeGreaterThan() {
+        return index.findByNameAndAgeGreaterThan(randomName(), 50);
+    }
+
+    @Benchmark
+    public List<Member> baselineFindByNameAndAgeGreaterThan() {
+        return baseline.getOrDefault(randomName(), new ArrayList<>()).stream()
+                .filter(member -> member.getAge() > 50)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public int indexCountByAge() {
+        return index.countByAge(ThreadLocalRandom.current().nextInt(100));
+    }
+
+    // 기준선은 age 구조가 없어서 전체 순회
+    @Benchmark
+    public long baselineCountByAge() {
+        int age = ThreadLocalRandom.current().nextInt(100);
+        return baseline.values().stream()
+                .flatMap(List::stream)
+                .filter(member -> member.getAge() == age)
+                .count();
+    }
+
+    private String randomName() {
+        return "member" + ThreadLocalRandom.current().nextInt(memberCount / 10);
+    }
+}
@@ -0,0 +1,80 @@
+package study.datajpa.benchmark;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import study.datajpa.controller.MemberColumnsCodec;
+import study.datajpa.dto.MemberColumns;
+import study.datajpa.dto.MemberDto;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description Page<MemberDto> jackson json vs slim json vs binary member page (bytes printed at setup)
+ **********************************************************************************************************************/
+@Slf4j
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MemberPageFormatBenchmark {
+
+    @Param({"5", "100"})
+    int pageSize;
+
+    ObjectMapper objectMapper;
+    PageImpl<MemberDto> page;
+    MemberColumns columns;
+    ByteArrayOutputStream out;
+
+    // 컨트롤러 기본값과 같은 조건: name 정렬, 전체 10만 건 중 3 페이지
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        objectMapper = new ObjectMapper();
+        PageRequest pageRequest = PageRequest.of(3, pageSize, Sort.by("name"));
+        List<MemberDto> content = new ArrayList<>(pageSize);
+        long[] ids = new long[pageSize];
+        String[] names = new String[pageSize];
+        for (int i = 0; i < pageSize; i++) {
+            ids[i] = 1000L + i;
+            names[i] = "member" + (1000 + i);
+            content.add(new MemberDto(ids[i], names[i]));
+        }
+        page = new PageImpl<>(content, pageRequest, 100_000);
+        columns = new MemberColumns(ids, names, 3, pageSize, true, 100_000L);
+        out = new ByteArrayOutputStream(64 * 1024);
+
+        log.info("bytes per page of {}: page json {}, slim json {}, binary {}",
+                pageSize, pageJson().length, slimJson().length, binary().length);
+    }
+
+    @Benchmark
+    public byte[] pageJson() throws IOException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] slimJson() throws IOException {
+        out.reset();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            MemberColumnsCodec.writeSlimJson(columns, generator);
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] binary() throws IOException {
+        out.reset();
+        MemberColumnsCodec.writeBinary(columns, out);
+        return out.toByteArray();
+    }
+}
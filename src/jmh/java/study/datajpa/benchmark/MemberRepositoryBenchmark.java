@@ -0,0 +1,120 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description member repository hot path benchmark
+ **********************************************************************************************************************/
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MemberRepositoryBenchmark {
+
+    private static final int SAVE_COUNT = 1000;
+
+    @Param({"1000", "100000"})
+    int memberCount;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    EntityManager em;
+    TransactionTemplate transactionTemplate;
+    long[] memberIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkSupport.start();
+        memberRepository = context.getBean(MemberRepository.class);
+        em = context.getBean(EntityManager.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        memberIds = BenchmarkSupport.seed(context, memberCount);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Member> findById() {
+        return memberRepository.findById(randomId());
+    }
+
+    @Benchmark
+    public List<Member> findByNameAndAgeGreaterThan() {
+        int i = ThreadLocalRandom.current().nextInt(memberCount);
+        return memberRepository.findByNameAndAgeGreaterThan("member" + i, 10);
+    }
+
+    @Benchmark
+    public Page<Member> findByAge() {
+        return memberRepository.findByAge(ThreadLocalRandom.current().nextInt(100), PageRequest.of(0, 10));
+    }
+
+    @Benchmark
+    public List<MemberDto> findMemberDto() {
+        return memberRepository.findMemberDto();
+    }
+
+    @Benchmark
+    public List<Member> findMemberWithTeam() {
+        return memberRepository.findMemberWithTeam();
+    }
+
+    @Benchmark
+    public List<Member> findMemberEntityGraph() {
+        return memberRepository.findMemberEntityGraph();
+    }
+
+    // 데이터셋이 변하지 않도록 rollback
+    @Benchmark
+    public Integer bulkAgePlus() {
+        return transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            return memberRepository.bulkAgePlus(50);
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAVE_COUNT)
+    public Integer saveAllBatched() {
+        return transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            return memberRepository.saveAllBatched(BenchmarkSupport.newMembers(SAVE_COUNT), 100);
+        });
+    }
+
+    // 변경 전 저장 경로 (identity, batch 없음). 1M 건 rows/sec 비교는 BulkInsertBenchmark
+    @Benchmark
+    @OperationsPerInvocation(SAVE_COUNT)
+    public Integer saveIdentityOneByOne() {
+        return transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            for (int i = 0; i < SAVE_COUNT; i++) {
+                em.persist(new IdentityMember("new" + i, i % 100));
+            }
+            em.clear();
+            return SAVE_COUNT;
+        });
+    }
+
+    private long randomId() {
+        return memberIds[ThreadLocalRandom.current().nextInt(memberIds.length)];
+    }
+}
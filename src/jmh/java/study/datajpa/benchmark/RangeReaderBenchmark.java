@@ -0,0 +1,63 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.job.MemberRangeReader;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description MemberRangeReader scaling from 1 to N partitions on a multi-million row h2 file database
+ **********************************************************************************************************************/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+public class RangeReaderBenchmark {
+
+    private static final int MEMBER_COUNT = 2_000_000;
+
+    // 코어 수까지 늘려가며 비교
+    @Param({"1", "2", "4", "8"})
+    int partitions;
+
+    ConfigurableApplicationContext context;
+    MemberRangeReader reader;
+
+    // 파일 DB 는 첫 trial 에서 한 번만 채우고 이후 재사용 (ddl-auto update)
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkSupport.start(
+                "spring.datasource.url=jdbc:h2:file:./build/jmh-range-reader",
+                "spring.jpa.hibernate.ddl-auto=update",
+                "spring.datasource.hikari.maximum-pool-size=" + (partitions + 2),
+                "member.range-reader.parallelism=" + partitions);
+        reader = context.getBean(MemberRangeReader.class);
+        long existing = context.getBean(MemberRepository.class).count();
+        if (existing < MEMBER_COUNT) {
+            BenchmarkSupport.seed(context, (int) (MEMBER_COUNT - existing));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<MemberDto> ordered() {
+        return reader.readAll(partitions);
+    }
+
+    @Benchmark
+    public long unordered(Blackhole blackhole) {
+        return reader.stream(partitions, blackhole::consume);
+    }
+}
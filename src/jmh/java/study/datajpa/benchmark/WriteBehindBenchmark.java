@@ -0,0 +1,101 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.writebehind.MemberChange;
+import study.datajpa.repository.writebehind.MemberWriteBehind;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description committed updates/ms of a direct update per call vs MemberWriteBehind.save + flush on a small hot set of members
+ **********************************************************************************************************************/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(8)
+public class WriteBehindBenchmark {
+
+    private static final int HOT_MEMBERS = 100;
+    private static final int FLUSH_EVERY = 100;
+
+    // memory 는 유실 허용, journal_sync 는 save 마다 fsync
+    @Param({"memory", "journal", "journal_sync"})
+    String durability;
+
+    ConfigurableApplicationContext context;
+    MemberWriteBehind writeBehind;
+    TransactionTemplate transactionTemplate;
+    EntityManager em;
+    long[] ids;
+    // 스레드끼리 공유하는 불변 스냅샷, 호출마다 여기서 새 MemberChange 를 만든다
+    List<MemberChange> snapshots;
+
+    // coalescing 후 실제로 update 된 행 수 (score 는 커밋까지 끝난 save 수)
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Committed {
+        public long rows;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // 벤치마크만 member 를 쓰고 스냅샷의 version 은 첫 flush 뒤 낡으므로 덮어쓰기
+        context = BenchmarkSupport.start("member.write-behind.enabled=true",
+                "member.write-behind.durability=" + durability,
+                "member.write-behind.on-conflict=overwrite",
+                "member.write-behind.journal-directory=build/jmh-write-behind");
+        writeBehind = context.getBean(MemberWriteBehind.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        em = context.getBean(EntityManager.class);
+        ids = BenchmarkSupport.seed(context, HOT_MEMBERS);
+        snapshots = context.getBean(MemberRepository.class)
+                .findAllById(LongStream.of(ids).boxed().collect(Collectors.toList()))
+                .stream().map(MemberChange::of).collect(Collectors.toList());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // 호출마다 조회 + dirty checking update + 커밋
+    @Benchmark
+    public Member direct(Committed committed) {
+        long id = ids[ThreadLocalRandom.current().nextInt(ids.length)];
+        int age = ThreadLocalRandom.current().nextInt(100);
+        Member updated = transactionTemplate.execute(status -> {
+            Member member = em.find(Member.class, id);
+            member.setAge(age);
+            return member;
+        });
+        committed.rows++;
+        return updated;
+    }
+
+    // FLUSH_EVERY 건 save 후 flush, 반환 시점에 이 스레드의 변경은 모두 커밋됨 (다른 스레드의 flush 가 가져갔어도)
+    @Benchmark
+    @OperationsPerInvocation(FLUSH_EVERY)
+    public int writeBehind(Committed committed) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < FLUSH_EVERY; i++) {
+            MemberChange snapshot = snapshots.get(random.nextInt(snapshots.size()));
+            writeBehind.save(MemberChange.of(snapshot.getId(), snapshot.getName(), random.nextInt(100),
+                    snapshot.getTeamId(), snapshot.getVersion()));
+        }
+        int written = writeBehind.flush();
+        committed.rows += written;
+        return written;
+    }
+}
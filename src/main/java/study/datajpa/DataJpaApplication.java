@@ -2,9 +2,11 @@ package study.datajpa;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.context.annotation.Bean;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import study.datajpa.common.entity.RequestCachedAuditorAware;
 
 import java.util.Optional;
 import java.util.UUID;
@@ -14,11 +16,14 @@ import java.util.UUID;
 public class DataJpaApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(DataJpaApplication.class, args);
+        SpringApplication application = new SpringApplication(DataJpaApplication.class);
+        // bean 단위 초기화 시간은 /actuator/startup
+        application.setApplicationStartup(new BufferingApplicationStartup(4096));
+        application.run(args);
     }
 
     @Bean
     public AuditorAware<String> auditorProvider() {
-        return () -> Optional.of("sony");
+        return new RequestCachedAuditorAware<>(() -> Optional.of("sony"));
     }
 }
@@ -0,0 +1,74 @@
+package study.datajpa.common.async;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.TaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import study.datajpa.common.sql.QueryCountHolder;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description member endpoint executor config
+ **********************************************************************************************************************/
+@Slf4j
+@Configuration
+public class AsyncExecutionConfig {
+
+    // 동시 실행 수를 커넥션 풀 크기에 맞춰, 풀을 기다리는 스레드가 쌓이지 않게 한다
+    // 그 이상은 queue-capacity 만큼만 대기하고 나머지는 바로 503 (AsyncExceptionHandler)
+    // Executor 타입으로 주입받는 곳에는 applicationTaskExecutor 가 들어가고, 이 bean 은 BoundedExecutor 로 주입
+    @Bean(destroyMethod = "shutdown")
+    public BoundedExecutor memberExecutor(@Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                                          @Value("${member.async.queue-capacity:100}") int queueCapacity,
+                                          @Value("${member.async.virtual-threads:true}") boolean virtualThreads) {
+        ExecutorService delegate = virtualThreads ? newVirtualThreadExecutor() : null;
+        if (delegate == null) {
+            delegate = Executors.newFixedThreadPool(poolSize, namedThreadFactory());
+        }
+        log.info("member executor: {} (concurrency {}, queue {})",
+                delegate.getClass().getSimpleName(), poolSize, queueCapacity);
+        return new BoundedExecutor(delegate, poolSize, queueCapacity, QueryCountHolder::wrap);
+    }
+
+    // Executor bean(memberExecutor, bulkJobExecutor)이 있으면 boot 가 applicationTaskExecutor 를 만들지 않으므로
+    // 같은 설정(spring.task.execution.*)으로 직접 등록. @Async, mvc async, jpa bootstrap 이 이 이름으로 찾는다
+    @Lazy
+    @Primary
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(TaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    // sourceCompatibility 1.8 이라 리플렉션으로 확인, virtual thread 를 지원하지 않는 JDK 면 null
+    private ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private ThreadFactory namedThreadFactory() {
+        AtomicInteger sequence = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, "member-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
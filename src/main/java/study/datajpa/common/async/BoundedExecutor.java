@@ -0,0 +1,84 @@
+package study.datajpa.common.async;
+
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description executor that runs at most maxConcurrency tasks, queues up to queueCapacity and rejects the rest immediately
+ **********************************************************************************************************************/
+public class BoundedExecutor implements Executor {
+
+    private final ExecutorService delegate;
+    // 실행 중인 task 수 (delegate 가 스레드를 task 마다 만드는 virtual thread executor 여도 상한 유지)
+    private final Semaphore running;
+    private final BlockingQueue<Runnable> queue;
+    private final TaskDecorator taskDecorator;
+
+    public BoundedExecutor(ExecutorService delegate, int maxConcurrency, int queueCapacity, TaskDecorator taskDecorator) {
+        this.delegate = delegate;
+        this.running = new Semaphore(maxConcurrency);
+        this.queue = new ArrayBlockingQueue<>(Math.max(queueCapacity, 1));
+        this.taskDecorator = taskDecorator;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        Runnable decorated = taskDecorator.decorate(task);
+        if (running.tryAcquire()) {
+            submit(decorated);
+        } else if (queue.offer(decorated)) {
+            // offer 직후에 실행 중이던 task 가 끝났을 수 있으므로 다시 확인
+            drain();
+        } else {
+            throw new RejectedExecutionException("member executor is saturated");
+        }
+    }
+
+    public int getAvailablePermits() {
+        return running.availablePermits();
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    // permit 을 가진 상태에서 호출. task 가 끝나면 permit 을 돌려주고 queue 에 남은 task 를 이어서 실행
+    private void submit(Runnable task) {
+        try {
+            delegate.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    running.release();
+                    drain();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            running.release();
+            throw e;
+        }
+    }
+
+    private void drain() {
+        while (!queue.isEmpty() && running.tryAcquire()) {
+            Runnable next = queue.poll();
+            if (next == null) {
+                running.release();
+            } else {
+                submit(next);
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package study.datajpa.common.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description short ttl cache for paging count queries (stale value is served while it is refreshed in background)
+ **********************************************************************************************************************/
+@Slf4j
+@Component
+public class CountCache implements DisposableBean {
+
+    private static final int MAX_ENTRIES = 1000;
+
+    private final Map<Object, Entry> entries = new ConcurrentHashMap<>();
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "count-cache-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final long refreshAfterNanos;
+    private final long expireAfterNanos;
+    // 백그라운드 갱신은 호출한 쪽 트랜잭션 밖이므로 따로 readOnly 트랜잭션을 연다
+    private final TransactionTemplate refreshTransaction;
+
+    public CountCache(@Value("${member.count-cache.refresh-after:5s}") Duration refreshAfter,
+                      @Value("${member.count-cache.expire-after:30s}") Duration expireAfter,
+                      PlatformTransactionManager transactionManager) {
+        this.refreshAfterNanos = refreshAfter.toNanos();
+        this.expireAfterNanos = expireAfter.toNanos();
+        this.refreshTransaction = new TransactionTemplate(transactionManager);
+        this.refreshTransaction.setReadOnly(true);
+    }
+
+    // key 는 쿼리 + 파라미터 (ex. Arrays.asList("Member.countByAge", age))
+    public long count(Object key, LongSupplier counter) {
+        long now = System.nanoTime();
+        Entry entry = entries.get(key);
+        if (entry == null || now - entry.loadedAt > expireAfterNanos) {
+            if (entries.size() >= MAX_ENTRIES) {
+                entries.clear();
+            }
+            long count = counter.getAsLong();
+            entries.put(key, new Entry(count, now));
+            return count;
+        }
+        if (now - entry.loadedAt > refreshAfterNanos && entry.refreshing.compareAndSet(false, true)) {
+            refresher.execute(() -> refresh(key, entry, counter));
+        }
+        return entry.count;
+    }
+
+    // 변경한 트랜잭션이 커밋된 뒤에 호출해야 커밋 전 건수가 다시 캐시되지 않는다 (MemberCountCacheAspect)
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    @Override
+    public void destroy() {
+        refresher.shutdownNow();
+    }
+
+    private void refresh(Object key, Entry entry, LongSupplier counter) {
+        try {
+            Long count = refreshTransaction.execute(status -> counter.getAsLong());
+            entries.replace(key, entry, new Entry(count, System.nanoTime()));
+        } catch (RuntimeException e) {
+            log.warn("count refresh failed: {}", key, e);
+            entry.refreshing.set(false);
+        }
+    }
+
+    private static class Entry {
+        final long count;
+        final long loadedAt;
+        final AtomicBoolean refreshing = new AtomicBoolean();
+
+        Entry(long count, long loadedAt) {
+            this.count = count;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package study.datajpa.common.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description routes read only transactions to the replica data source
+ **********************************************************************************************************************/
+public class ReadOnlyRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route { WRITE, READ }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? Route.READ : Route.WRITE;
+    }
+}
@@ -0,0 +1,89 @@
+package study.datajpa.common.datasource;
+
+import com.github.gavlyukovskiy.boot.jdbc.decorator.DataSourceDecoratorProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description read replica data source config
+ **********************************************************************************************************************/
+@Configuration
+@ConditionalOnProperty(prefix = "spring.datasource.replica", name = "url")
+public class ReplicaDataSourceConfig {
+
+    public static final String WRITE = "write";
+    public static final String READ = "read";
+
+    // 라우팅 프록시는 닫을 것이 없으므로 풀은 각각 빈으로 등록해서 컨텍스트 종료 시 close
+    @Bean(destroyMethod = "close")
+    @Qualifier(WRITE)
+    public HikariDataSource writeDataSource(DataSourceProperties properties, Environment environment) {
+        return pool(properties, Binder.get(environment), WRITE);
+    }
+
+    @Bean(destroyMethod = "close")
+    @Qualifier(READ)
+    public HikariDataSource readDataSource(Environment environment) {
+        Binder binder = Binder.get(environment);
+        DataSourceProperties replicaProperties = binder
+                .bind("spring.datasource.replica", DataSourceProperties.class)
+                .get();
+        HikariDataSource read = pool(replicaProperties, binder, READ);
+        read.setReadOnly(true);
+        return read;
+    }
+
+    // JPA 등 DataSource 하나를 주입받는 곳은 라우팅을 받는다
+    // p6spy 는 getConnection 에서 바로 getMetaData 를 호출하므로 라우팅을 감싸면 트랜잭션 시작 중(readOnly 표시 전)에
+    // 대상 커넥션이 정해져 항상 write 로 간다. 라우팅은 decorator 에서 제외하고 그 뒤의 두 풀을 감싸게 한다
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier(WRITE) HikariDataSource write, @Qualifier(READ) HikariDataSource read,
+                                 ObjectProvider<DataSourceDecoratorProperties> decoratorProperties) {
+        decoratorProperties.ifAvailable(properties -> {
+            List<String> excludeBeans = new ArrayList<>(properties.getExcludeBeans());
+            excludeBeans.add("dataSource");
+            properties.setExcludeBeans(excludeBeans);
+        });
+        return routing(write, read);
+    }
+
+    // 자동 설정 풀이 아니므로 spring.datasource.hikari.* 는 직접 바인딩 (micrometer 지표는 HikariDataSource 빈이라 자동으로 붙음)
+    private HikariDataSource pool(DataSourceProperties properties, Binder binder, String poolName) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(poolName);
+        return pool;
+    }
+
+    // 트랜잭션 시작 시점이 아닌 첫 statement 시점에 커넥션을 얻어야 readOnly 여부로 라우팅 가능
+    public static DataSource routing(DataSource write, DataSource read) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(ReadOnlyRoutingDataSource.Route.WRITE, write);
+        targets.put(ReadOnlyRoutingDataSource.Route.READ, read);
+
+        ReadOnlyRoutingDataSource routing = new ReadOnlyRoutingDataSource();
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(write);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
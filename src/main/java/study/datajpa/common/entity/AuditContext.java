@@ -0,0 +1,54 @@
+package study.datajpa.common.entity;
+
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description audit timestamp and auditor resolved once per transaction
+ **********************************************************************************************************************/
+public final class AuditContext {
+
+    private final LocalDateTime now;
+    private String auditor;
+    private boolean auditorResolved;
+
+    private AuditContext(LocalDateTime now) {
+        this.now = now;
+    }
+
+    // 트랜잭션 안이면 처음 호출한 시점의 값을 커밋/롤백까지 재사용, 밖이면 매번 새로 만든다
+    public static AuditContext current() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new AuditContext(LocalDateTime.now());
+        }
+        AuditContext context = (AuditContext) TransactionSynchronizationManager.getResource(AuditContext.class);
+        if (context == null) {
+            context = new AuditContext(LocalDateTime.now());
+            TransactionSynchronizationManager.bindResource(AuditContext.class, context);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(AuditContext.class);
+                }
+            });
+        }
+        return context;
+    }
+
+    public LocalDateTime now() {
+        return now;
+    }
+
+    public String auditor(AuditorAware<?> auditorAware) {
+        if (!auditorResolved) {
+            auditor = auditorAware.getCurrentAuditor().map(Object::toString).orElse(null);
+            auditorResolved = true;
+        }
+        return auditor;
+    }
+}
@@ -0,0 +1,63 @@
+package study.datajpa.common.entity;
+
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.auditing.AuditingHandler;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description auditing listener that sets BaseTimeEntity / BaseEntity fields directly instead of by reflection
+ **********************************************************************************************************************/
+public class AuditListener {
+
+    private final ObjectFactory<AuditorAware<?>> auditorAwareFactory;
+    private final boolean fast;
+    private final AuditingEntityListener delegate = new AuditingEntityListener();
+    private volatile AuditorAware<?> auditorAware;
+
+    // hibernate 가 SpringBeanContainer 로 생성하므로 생성자 주입 가능
+    // EntityManagerFactory 가 백그라운드에서 만들어지는 중에 생성되므로 bean 은 처음 사용할 때 찾는다 (singleton lock 대기 방지)
+    // member.auditing.fast=false 면 기존 AuditingEntityListener 경로 (@CreatedDate 등 어노테이션 기반)
+    public AuditListener(ObjectFactory<AuditingHandler> auditingHandler, ObjectFactory<AuditorAware<?>> auditorAware,
+                         @Value("${member.auditing.fast:true}") boolean fast) {
+        this.auditorAwareFactory = auditorAware;
+        this.fast = fast;
+        this.delegate.setAuditingHandler(auditingHandler);
+    }
+
+    // 시각과 auditor 는 트랜잭션마다 한 번만 계산 (saveAllBatched 같은 일괄 저장은 모두 같은 값)
+    @PrePersist
+    public void touchForCreate(Object target) {
+        if (!fast) {
+            delegate.touchForCreate(target);
+        } else if (target instanceof BaseTimeEntity) {
+            AuditContext context = AuditContext.current();
+            ((BaseTimeEntity) target).touchForCreate(context.now(), context.auditor(auditorAware()));
+        }
+    }
+
+    @PreUpdate
+    public void touchForUpdate(Object target) {
+        if (!fast) {
+            delegate.touchForUpdate(target);
+        } else if (target instanceof BaseTimeEntity) {
+            AuditContext context = AuditContext.current();
+            ((BaseTimeEntity) target).touchForUpdate(context.now(), context.auditor(auditorAware()));
+        }
+    }
+
+    private AuditorAware<?> auditorAware() {
+        AuditorAware<?> resolved = auditorAware;
+        if (resolved == null) {
+            resolved = auditorAwareFactory.getObject();
+            auditorAware = resolved;
+        }
+        return resolved;
+    }
+}
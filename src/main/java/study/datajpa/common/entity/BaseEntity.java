@@ -3,18 +3,17 @@ package study.datajpa.common.entity;
 import lombok.Getter;
 import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.LastModifiedBy;
-import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import javax.persistence.Column;
-import javax.persistence.EntityListeners;
 import javax.persistence.MappedSuperclass;
+import javax.persistence.Version;
+import java.time.LocalDateTime;
 
 /**
  * @since       2023.01.06
  * @author      sony
  * @description base entity
  **********************************************************************************************************************/
-@EntityListeners(AuditingEntityListener.class)
 @MappedSuperclass
 @Getter
 public class BaseEntity extends BaseTimeEntity {
@@ -24,4 +23,20 @@ public class BaseEntity extends BaseTimeEntity {
     private String createdBy;
     @LastModifiedBy
     private String lastModifiedBy;
+
+    @Version
+    private Long version;
+
+    @Override
+    void touchForCreate(LocalDateTime now, String auditor) {
+        super.touchForCreate(now, auditor);
+        createdBy = auditor;
+        lastModifiedBy = auditor;
+    }
+
+    @Override
+    void touchForUpdate(LocalDateTime now, String auditor) {
+        super.touchForUpdate(now, auditor);
+        lastModifiedBy = auditor;
+    }
 }
\ No newline at end of file
@@ -3,7 +3,6 @@ package study.datajpa.common.entity;
 import lombok.Getter;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
-import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import javax.persistence.Column;
 import javax.persistence.EntityListeners;
@@ -15,7 +14,7 @@ import java.time.LocalDateTime;
  * @author      sony
  * @description base time entity
  **********************************************************************************************************************/
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners(AuditListener.class)
 @MappedSuperclass
 @Getter
 public class BaseTimeEntity {
@@ -25,4 +24,14 @@ public class BaseTimeEntity {
     private LocalDateTime createdDate;
     @LastModifiedDate
     private LocalDateTime lastModifiedDate;
+
+    // AuditListener 빠른 경로용, auditor 는 BaseEntity 에서 사용
+    void touchForCreate(LocalDateTime now, String auditor) {
+        createdDate = now;
+        lastModifiedDate = now;
+    }
+
+    void touchForUpdate(LocalDateTime now, String auditor) {
+        lastModifiedDate = now;
+    }
 }
\ No newline at end of file
@@ -23,13 +23,13 @@ public class JpaBaseEntity {
 
     @PrePersist
     public void prePersist() {
-        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime now = AuditContext.current().now();
         createDate = now;
         updateDate = now;
     }
 
     @PreUpdate
     public void preUpdate() {
-        updateDate = LocalDateTime.now();
+        updateDate = AuditContext.current().now();
     }
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package study.datajpa.common.entity;
+
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Optional;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description resolves the auditor once per http request (delegates on every call outside a request)
+ **********************************************************************************************************************/
+public class RequestCachedAuditorAware<T> implements AuditorAware<T> {
+
+    private static final String ATTRIBUTE = RequestCachedAuditorAware.class.getName() + ".auditor";
+
+    private final AuditorAware<T> delegate;
+
+    public RequestCachedAuditorAware(AuditorAware<T> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<T> getCurrentAuditor() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return delegate.getCurrentAuditor();
+        }
+        Optional<T> auditor = (Optional<T>) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (auditor == null) {
+            auditor = delegate.getCurrentAuditor();
+            attributes.setAttribute(ATTRIBUTE, auditor, RequestAttributes.SCOPE_REQUEST);
+        }
+        return auditor;
+    }
+}
@@ -0,0 +1,76 @@
+package study.datajpa.common.jpa;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.lang.reflect.Method;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description parses every jpql @Query of the spring data repositories before the application reports ready
+ **********************************************************************************************************************/
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class QueryPlanWarmer implements ApplicationRunner {
+
+    private final ApplicationContext applicationContext;
+    private final EntityManagerFactory emf;
+
+    // named query 는 hibernate 가 부팅 시 검증하므로 @Query 문자열만 plan cache 에 올린다
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.currentTimeMillis();
+        Set<String> queries = collectQueries();
+
+        EntityManager em = emf.createEntityManager();
+        try {
+            for (String jpql : queries) {
+                em.createQuery(jpql);
+            }
+        } finally {
+            em.close();
+        }
+        log.info("warmed up {} repository queries in {}ms", queries.size(), System.currentTimeMillis() - start);
+    }
+
+    private Set<String> collectQueries() {
+        Set<String> queries = new LinkedHashSet<>();
+        Repositories repositories = new Repositories(applicationContext);
+        for (Class<?> domainType : repositories) {
+            repositories.getRepositoryInformationFor(domainType).ifPresent(information -> {
+                for (Method method : information.getRepositoryInterface().getMethods()) {
+                    Query query = method.getAnnotation(Query.class);
+                    if (query == null || query.nativeQuery()) {
+                        continue;
+                    }
+                    addIfPlain(queries, query.value());
+                    addIfPlain(queries, query.countQuery());
+                }
+            });
+        }
+        return queries;
+    }
+
+    // SpEL (#{#entityName} 등) 은 spring data 가 치환해야 하므로 제외
+    private void addIfPlain(Set<String> queries, String jpql) {
+        if (StringUtils.hasText(jpql) && !jpql.contains("#{")) {
+            queries.add(jpql);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package study.datajpa.common.metrics;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description micrometer config
+ **********************************************************************************************************************/
+@Configuration
+public class MetricsConfig {
+
+    // @Timed 가 붙은 일반 빈 (ex. MemberJpaRepository) 계측. spring data 리포지토리는 spring.data.repository.invocations 로 자동 계측
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
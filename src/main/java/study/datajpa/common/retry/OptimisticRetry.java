@@ -0,0 +1,21 @@
+package study.datajpa.common.retry;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description retries the annotated (transactional) method on optimistic lock failure
+ **********************************************************************************************************************/
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface OptimisticRetry {
+
+    int maxAttempts() default 3;
+
+    // 시도마다 2배씩 증가 (+ 최대 같은 크기의 jitter)
+    long backoffMillis() default 20;
+}
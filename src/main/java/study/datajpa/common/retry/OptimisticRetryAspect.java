@@ -0,0 +1,45 @@
+package study.datajpa.common.retry;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.OptimisticLockException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description {@link OptimisticRetry} advice, ordered outside of the transaction advice so every attempt gets a new transaction
+ **********************************************************************************************************************/
+@Slf4j
+@Aspect
+@Component
+// ExposeInvocationInterceptor(HIGHEST_PRECEDENCE + 1) 보다 안쪽이어야 @annotation(retry) 인자가 바인딩됨
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class OptimisticRetryAspect {
+
+    @Around("@annotation(retry)")
+    public Object retry(ProceedingJoinPoint joinPoint, OptimisticRetry retry) throws Throwable {
+        int attempt = 1;
+        while (true) {
+            try {
+                return joinPoint.proceed();
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                if (attempt >= retry.maxAttempts()) {
+                    throw e;
+                }
+                long backoff = retry.backoffMillis() << (attempt - 1);
+                log.debug("optimistic lock failure on {} (attempt {}), retry after {}ms",
+                        joinPoint.getSignature().toShortString(), attempt, backoff);
+                Thread.sleep(backoff + ThreadLocalRandom.current().nextLong(backoff + 1));
+                attempt++;
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package study.datajpa.common.sql;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description sql statement count of one unit of work
+ **********************************************************************************************************************/
+@Getter
+@ToString
+public class QueryCount {
+
+    public static final int UNLIMITED = Integer.MAX_VALUE;
+
+    private int select;
+    private int insert;
+    private int update;
+    private int delete;
+    private int other;
+    @ToString.Exclude
+    private final int limit;
+    // capture 모드에서만 bind 값이 채워진 sql 을 모음 (테스트용)
+    @ToString.Exclude
+    private final List<String> statements;
+
+    public QueryCount() {
+        this(UNLIMITED);
+    }
+
+    public QueryCount(int limit) {
+        this(limit, false);
+    }
+
+    public QueryCount(int limit, boolean capturing) {
+        this.limit = limit;
+        this.statements = capturing ? new ArrayList<>() : null;
+    }
+
+    public boolean isCapturing() {
+        return statements != null;
+    }
+
+    public void capture(String sql) {
+        if (statements != null) {
+            statements.add(sql);
+        }
+    }
+
+    public List<String> getStatements() {
+        return statements == null ? Collections.emptyList() : Collections.unmodifiableList(statements);
+    }
+
+    public void increment(QueryType type) {
+        switch (type) {
+            case SELECT: select++; break;
+            case INSERT: insert++; break;
+            case UPDATE: update++; break;
+            case DELETE: delete++; break;
+            default: other++;
+        }
+        if (getTotal() > limit) {
+            throw new QueryCountExceededException(this);
+        }
+    }
+
+    public int getTotal() {
+        return select + insert + update + delete + other;
+    }
+}
@@ -0,0 +1,30 @@
+package study.datajpa.common.sql;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description query count guard config
+ **********************************************************************************************************************/
+@Configuration
+@EnableConfigurationProperties(QueryCountProperties.class)
+@ConditionalOnProperty(prefix = "query-count", name = "enabled", havingValue = "true")
+public class QueryCountConfig implements WebMvcConfigurer {
+
+    private final QueryCountProperties properties;
+
+    public QueryCountConfig(QueryCountProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new QueryCountInterceptor(properties))
+                .addPathPatterns("/members/**", "/members2/**", "/teams/**");
+    }
+}
@@ -0,0 +1,21 @@
+package study.datajpa.common.sql;
+
+import lombok.Getter;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description thrown when a unit of work issues more statements than allowed
+ **********************************************************************************************************************/
+@Getter
+public class QueryCountExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final QueryCount queryCount;
+
+    public QueryCountExceededException(QueryCount queryCount) {
+        super("statement count exceeded limit " + queryCount.getLimit() + ": " + queryCount);
+        this.queryCount = queryCount;
+    }
+}
@@ -0,0 +1,33 @@
+package study.datajpa.common.sql;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description reject mode: a request over the statement threshold answers 503 with the counts
+ **********************************************************************************************************************/
+@RestControllerAdvice
+public class QueryCountExceptionHandler {
+
+    // jdbc 실행 중에 던져져 hibernate / spring 예외로 감싸여 오지만, @ExceptionHandler 는 cause 까지 찾아서 매칭
+    @ExceptionHandler(QueryCountExceededException.class)
+    public ResponseEntity<Map<String, Object>> exceeded(QueryCountExceededException e) {
+        QueryCount count = e.getQueryCount();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("error", "query count exceeded");
+        body.put("limit", count.getLimit());
+        body.put("select", count.getSelect());
+        body.put("insert", count.getInsert());
+        body.put("update", count.getUpdate());
+        body.put("delete", count.getDelete());
+        body.put("other", count.getOther());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(body);
+    }
+}
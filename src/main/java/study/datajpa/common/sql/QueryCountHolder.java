@@ -0,0 +1,90 @@
+package study.datajpa.common.sql;
+
+import java.util.function.Supplier;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description thread bound sql statement counter
+ **********************************************************************************************************************/
+public abstract class QueryCountHolder {
+
+    private static final ThreadLocal<QueryCount> CURRENT = new ThreadLocal<>();
+
+    private QueryCountHolder() {
+    }
+
+    public static void start(int limit) {
+        CURRENT.set(new QueryCount(limit));
+    }
+
+    public static void start(QueryCount count) {
+        CURRENT.set(count);
+    }
+
+    public static QueryCount stop() {
+        QueryCount count = CURRENT.get();
+        CURRENT.remove();
+        return count;
+    }
+
+    public static QueryCount current() {
+        return CURRENT.get();
+    }
+
+    // 다른 스레드에서 실행될 task 가 현재 스레드의 카운터를 이어서 쓰도록 감싼다 (TaskDecorator 용)
+    public static Runnable wrap(Runnable task) {
+        QueryCount count = CURRENT.get();
+        if (count == null) {
+            return task;
+        }
+        return () -> {
+            QueryCount previous = CURRENT.get();
+            CURRENT.set(count);
+            try {
+                task.run();
+            } finally {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        };
+    }
+
+    // 테스트용: action 이 실행한 statement 수를 센다. ex) assertThat(count(() -> ...).getSelect()).isLessThanOrEqualTo(2)
+    public static QueryCount count(Runnable action) {
+        return count(() -> {
+            action.run();
+            return null;
+        }, QueryCount.UNLIMITED);
+    }
+
+    public static QueryCount count(Supplier<?> action, int limit) {
+        return run(new QueryCount(limit), action);
+    }
+
+    // 테스트용: 실행된 sql 을 bind 값과 함께 모은다 (QueryCount.getStatements)
+    public static QueryCount capture(Runnable action) {
+        return run(new QueryCount(QueryCount.UNLIMITED, true), () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private static QueryCount run(QueryCount count, Supplier<?> action) {
+        QueryCount previous = CURRENT.get();
+        CURRENT.set(count);
+        try {
+            action.get();
+            return count;
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
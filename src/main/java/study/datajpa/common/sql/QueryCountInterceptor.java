@@ -0,0 +1,53 @@
+package study.datajpa.common.sql;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description counts statements per http request, logs or rejects when over threshold
+ **********************************************************************************************************************/
+@Slf4j
+@RequiredArgsConstructor
+public class QueryCountInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String ATTRIBUTE = QueryCountInterceptor.class.getName() + ".COUNT";
+
+    private final QueryCountProperties properties;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // async 재디스패치면 처음 요청의 카운터를 이어서 사용
+        QueryCount started = (QueryCount) request.getAttribute(ATTRIBUTE);
+        if (started != null) {
+            QueryCountHolder.start(started);
+            return true;
+        }
+        // REJECT 모드는 threshold 를 넘는 statement 실행 시점에 QueryCountExceededException 발생
+        int limit = properties.getMode() == QueryCountProperties.Mode.REJECT
+                ? properties.getThreshold()
+                : QueryCount.UNLIMITED;
+        QueryCountHolder.start(limit);
+        request.setAttribute(ATTRIBUTE, QueryCountHolder.current());
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        QueryCountHolder.stop();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        QueryCount count = QueryCountHolder.stop();
+        if (count != null && count.getTotal() > properties.getThreshold()) {
+            log.warn("{} {} issued {} statements (threshold {}): {}",
+                    request.getMethod(), request.getRequestURI(), count.getTotal(), properties.getThreshold(), count);
+        }
+    }
+}
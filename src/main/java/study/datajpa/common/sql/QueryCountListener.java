@@ -0,0 +1,25 @@
+package study.datajpa.common.sql;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description p6spy listener counting statements into {@link QueryCountHolder}
+ **********************************************************************************************************************/
+@Component
+public class QueryCountListener extends SimpleJdbcEventListener {
+
+    @Override
+    public void onBeforeAnyExecute(StatementInformation statementInformation) {
+        QueryCount count = QueryCountHolder.current();
+        if (count != null) {
+            count.increment(QueryType.of(statementInformation.getSql()));
+            if (count.isCapturing()) {
+                count.capture(statementInformation.getSqlWithValues());
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package study.datajpa.common.sql;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description per request statement count guard properties
+ **********************************************************************************************************************/
+@Getter @Setter
+@ConfigurationProperties(prefix = "query-count")
+public class QueryCountProperties {
+
+    public enum Mode { LOG, REJECT }
+
+    private boolean enabled = false;
+    private int threshold = 10;
+    private Mode mode = Mode.LOG;
+}
@@ -0,0 +1,54 @@
+package study.datajpa.common.sql;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description in-memory hdr latency histograms per repository method
+ **********************************************************************************************************************/
+@Component
+public class QueryLatencyRecorder {
+
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    public void record(String method, long elapsedNanos) {
+        long micros = Math.min(Math.max(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), 1), HIGHEST_MICROS);
+        histograms.computeIfAbsent(method, k -> new ConcurrentHistogram(HIGHEST_MICROS, 3))
+                .recordValue(micros);
+    }
+
+    public Map<String, Map<String, Object>> snapshot() {
+        Map<String, Map<String, Object>> result = new TreeMap<>();
+        histograms.forEach((method, histogram) -> {
+            Histogram copy = histogram.copy();
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("count", copy.getTotalCount());
+            stats.put("p50Ms", millis(copy.getValueAtPercentile(50)));
+            stats.put("p90Ms", millis(copy.getValueAtPercentile(90)));
+            stats.put("p99Ms", millis(copy.getValueAtPercentile(99)));
+            stats.put("p999Ms", millis(copy.getValueAtPercentile(99.9)));
+            stats.put("maxMs", millis(copy.getMaxValue()));
+            result.put(method, stats);
+        });
+        return result;
+    }
+
+    public void reset() {
+        histograms.clear();
+    }
+
+    private double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
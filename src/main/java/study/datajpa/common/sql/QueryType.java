@@ -0,0 +1,32 @@
+package study.datajpa.common.sql;
+
+import java.util.Locale;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description sql statement type
+ **********************************************************************************************************************/
+public enum QueryType {
+    SELECT, INSERT, UPDATE, DELETE, OTHER;
+
+    public static QueryType of(String sql) {
+        if (sql == null) {
+            return OTHER;
+        }
+        String trimmed = sql.trim().toLowerCase(Locale.ROOT);
+        if (trimmed.startsWith("select") || trimmed.startsWith("with")) {
+            return SELECT;
+        }
+        if (trimmed.startsWith("insert")) {
+            return INSERT;
+        }
+        if (trimmed.startsWith("update")) {
+            return UPDATE;
+        }
+        if (trimmed.startsWith("delete")) {
+            return DELETE;
+        }
+        return OTHER;
+    }
+}
@@ -0,0 +1,29 @@
+package study.datajpa.common.sql;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description marks @Repository class invocations (ex. MemberJpaRepository) in {@link RepositoryMethodHolder}
+ **********************************************************************************************************************/
+@Aspect
+@Component
+public class RepositoryMethodAspect {
+
+    @Around("@within(org.springframework.stereotype.Repository)")
+    public Object mark(ProceedingJoinPoint joinPoint) throws Throwable {
+        boolean entered = RepositoryMethodHolder.enter(
+                joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName());
+        try {
+            return joinPoint.proceed();
+        } finally {
+            if (entered) {
+                RepositoryMethodHolder.exit();
+            }
+        }
+    }
+}
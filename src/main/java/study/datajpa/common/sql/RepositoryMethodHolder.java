@@ -0,0 +1,34 @@
+package study.datajpa.common.sql;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description thread bound name of the outermost repository method being executed (ex. MemberRepository.findByAge)
+ **********************************************************************************************************************/
+public abstract class RepositoryMethodHolder {
+
+    public static final String UNKNOWN = "unknown";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private RepositoryMethodHolder() {
+    }
+
+    // 이미 다른 리포지토리 메서드 안이면 false (바깥 메서드로 집계)
+    public static boolean enter(String method) {
+        if (CURRENT.get() != null) {
+            return false;
+        }
+        CURRENT.set(method);
+        return true;
+    }
+
+    public static void exit() {
+        CURRENT.remove();
+    }
+
+    public static String current() {
+        String method = CURRENT.get();
+        return method == null ? UNKNOWN : method;
+    }
+}
@@ -0,0 +1,30 @@
+package study.datajpa.common.sql;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description marks spring data repository invocations in {@link RepositoryMethodHolder}
+ **********************************************************************************************************************/
+public class RepositoryMethodInterceptor implements MethodInterceptor {
+
+    private final String repositoryName;
+
+    public RepositoryMethodInterceptor(Class<?> repositoryInterface) {
+        this.repositoryName = repositoryInterface.getSimpleName();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        boolean entered = RepositoryMethodHolder.enter(repositoryName + "." + invocation.getMethod().getName());
+        try {
+            return invocation.proceed();
+        } finally {
+            if (entered) {
+                RepositoryMethodHolder.exit();
+            }
+        }
+    }
+}
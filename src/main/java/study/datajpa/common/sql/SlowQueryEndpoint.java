@@ -0,0 +1,32 @@
+package study.datajpa.common.sql;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description /actuator/slowqueries : statement latency percentiles per repository method
+ **********************************************************************************************************************/
+@Component
+@Endpoint(id = "slowqueries")
+@RequiredArgsConstructor
+public class SlowQueryEndpoint {
+
+    private final QueryLatencyRecorder recorder;
+
+    @ReadOperation
+    public Map<String, Map<String, Object>> latencies() {
+        return recorder.snapshot();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        recorder.reset();
+    }
+}
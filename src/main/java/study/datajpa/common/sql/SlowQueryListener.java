@@ -0,0 +1,97 @@
+package study.datajpa.common.sql;
+
+import com.p6spy.engine.common.PreparedStatementInformation;
+import com.p6spy.engine.common.ResultSetInformation;
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description records statement latency per repository method and logs statements over the threshold
+ **********************************************************************************************************************/
+@Slf4j(topic = "slow-query")
+@Component
+public class SlowQueryListener extends SimpleJdbcEventListener {
+
+    private static final ThreadLocal<Integer> UPDATE_COUNT = new ThreadLocal<>();
+    // select 는 ResultSet 을 닫을 때 읽은 row 수와 함께 로그
+    private static final ThreadLocal<SlowStatement> PENDING = new ThreadLocal<>();
+
+    private final QueryLatencyRecorder recorder;
+    private final long thresholdNanos;
+
+    public SlowQueryListener(QueryLatencyRecorder recorder, SlowQueryProperties properties) {
+        this.recorder = recorder;
+        this.thresholdNanos = properties.getThreshold().toNanos();
+    }
+
+    @Override
+    public void onAfterExecuteUpdate(PreparedStatementInformation statementInformation, long timeElapsedNanos,
+                                     int rowCount, SQLException e) {
+        UPDATE_COUNT.set(rowCount);
+        super.onAfterExecuteUpdate(statementInformation, timeElapsedNanos, rowCount, e);
+    }
+
+    @Override
+    public void onAfterExecuteUpdate(StatementInformation statementInformation, long timeElapsedNanos,
+                                     String sql, int rowCount, SQLException e) {
+        UPDATE_COUNT.set(rowCount);
+        super.onAfterExecuteUpdate(statementInformation, timeElapsedNanos, sql, rowCount, e);
+    }
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        Integer updateCount = UPDATE_COUNT.get();
+        UPDATE_COUNT.remove();
+        flushPending(-1);
+
+        String method = RepositoryMethodHolder.current();
+        recorder.record(method, timeElapsedNanos);
+        if (timeElapsedNanos < thresholdNanos) {
+            return;
+        }
+
+        SlowStatement slow = new SlowStatement(method, timeElapsedNanos, statementInformation.getSqlWithValues());
+        if (updateCount == null && QueryType.of(statementInformation.getSql()) == QueryType.SELECT) {
+            PENDING.set(slow);
+        } else {
+            slow.log(updateCount == null ? -1 : updateCount);
+        }
+    }
+
+    @Override
+    public void onAfterResultSetClose(ResultSetInformation resultSetInformation, SQLException e) {
+        flushPending(resultSetInformation.getCurrRow() + 1);
+    }
+
+    private void flushPending(int rows) {
+        SlowStatement pending = PENDING.get();
+        if (pending != null) {
+            PENDING.remove();
+            pending.log(rows);
+        }
+    }
+
+    private static class SlowStatement {
+        private final String method;
+        private final long elapsedNanos;
+        private final String sql;
+
+        SlowStatement(String method, long elapsedNanos, String sql) {
+            this.method = method;
+            this.elapsedNanos = elapsedNanos;
+            this.sql = sql;
+        }
+
+        void log(int rows) {
+            log.warn("method={} elapsedMs={} rows={} sql={}",
+                    method, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), rows, sql);
+        }
+    }
+}
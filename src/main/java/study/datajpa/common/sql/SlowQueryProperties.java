@@ -0,0 +1,19 @@
+package study.datajpa.common.sql;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description slow query log properties
+ **********************************************************************************************************************/
+@Getter @Setter
+@ConfigurationProperties(prefix = "slow-query")
+public class SlowQueryProperties {
+
+    private Duration threshold = Duration.ofMillis(200);
+}
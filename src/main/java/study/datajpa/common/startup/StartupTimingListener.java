@@ -0,0 +1,69 @@
+package study.datajpa.common.startup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationContextInitializedEvent;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.boot.context.event.ApplicationPreparedEvent;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.boot.context.event.ApplicationStartingEvent;
+import org.springframework.boot.context.event.SpringApplicationEvent;
+import org.springframework.context.ApplicationListener;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description records the duration of each SpringApplication startup phase (registered in META-INF/spring.factories)
+ **********************************************************************************************************************/
+@Slf4j
+public class StartupTimingListener implements ApplicationListener<SpringApplicationEvent> {
+
+    private final Map<String, Duration> phases = new LinkedHashMap<>();
+    private long startNanos;
+    private long lastNanos;
+    private Duration timeToReady;
+
+    // ApplicationContext 가 만들어지기 전 이벤트도 받아야 해서 bean 이 아닌 spring.factories 로 등록
+    // ready 이후 조회할 수 있도록 prepared 시점에 자신을 singleton 으로 등록한다
+    @Override
+    public void onApplicationEvent(SpringApplicationEvent event) {
+        if (event instanceof ApplicationStartingEvent) {
+            startNanos = System.nanoTime();
+            lastNanos = startNanos;
+        } else if (event instanceof ApplicationEnvironmentPreparedEvent) {
+            mark("environment");
+        } else if (event instanceof ApplicationContextInitializedEvent) {
+            mark("context-initialized");
+        } else if (event instanceof ApplicationPreparedEvent) {
+            mark("bean-definitions");
+            ((ApplicationPreparedEvent) event).getApplicationContext().getBeanFactory()
+                    .registerSingleton("startupTimingListener", this);
+        } else if (event instanceof ApplicationStartedEvent) {
+            mark("refresh");
+        } else if (event instanceof ApplicationReadyEvent) {
+            mark("runners");
+            timeToReady = Duration.ofNanos(System.nanoTime() - startNanos);
+            log.info("started in {}ms {}", timeToReady.toMillis(), phases);
+        }
+    }
+
+    private void mark(String phase) {
+        long now = System.nanoTime();
+        phases.put(phase, Duration.ofNanos(now - lastNanos));
+        lastNanos = now;
+    }
+
+    public Map<String, Duration> getPhases() {
+        return Collections.unmodifiableMap(phases);
+    }
+
+    // ready 전에는 null
+    public Duration getTimeToReady() {
+        return timeToReady;
+    }
+}
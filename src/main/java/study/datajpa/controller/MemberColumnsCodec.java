@@ -0,0 +1,146 @@
+package study.datajpa.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import study.datajpa.dto.MemberColumns;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description binary and slim json encodings of MemberColumns
+ **********************************************************************************************************************/
+public final class MemberColumnsCodec {
+
+    /**
+     * binary (모든 정수는 unsigned LEB128 varint)
+     * <pre>
+     * version(1 byte) flags(1 byte: 0x01 hasNext, 0x02 totalElements 있음)
+     * page size [totalElements] count
+     * ids   : 이전 id 와의 차이 (zigzag), 첫 id 는 0 기준
+     * names : utf-8 길이 + 1 (null 이면 0) 뒤에 바이트
+     * </pre>
+     * 필드에 길이가 없어서 모르는 필드는 건너뛸 수 없다. 모르는 버전이나 flags 비트가 있으면 읽지 않고 실패한다
+     * 필드를 추가하면 flags 비트를 새로 쓰되 읽는 쪽을 먼저 배포하고, 레이아웃을 바꾸면 VERSION 을 올린다
+     */
+    public static final int VERSION = 1;
+
+    private static final int HAS_NEXT = 0x01;
+    private static final int HAS_TOTAL = 0x02;
+    private static final int KNOWN_FLAGS = HAS_NEXT | HAS_TOTAL;
+
+    private MemberColumnsCodec() {
+    }
+
+    public static void writeBinary(MemberColumns columns, OutputStream out) throws IOException {
+        out.write(VERSION);
+        out.write((columns.isHasNext() ? HAS_NEXT : 0) | (columns.getTotalElements() != null ? HAS_TOTAL : 0));
+        writeVarint(out, columns.getPage());
+        writeVarint(out, columns.getSize());
+        if (columns.getTotalElements() != null) {
+            writeVarint(out, columns.getTotalElements());
+        }
+        writeVarint(out, columns.getCount());
+
+        long previous = 0;
+        for (long id : columns.getIds()) {
+            long delta = id - previous;
+            writeVarint(out, (delta << 1) ^ (delta >> 63));
+            previous = id;
+        }
+        for (String name : columns.getNames()) {
+            if (name == null) {
+                writeVarint(out, 0);
+                continue;
+            }
+            byte[] utf8 = name.getBytes(StandardCharsets.UTF_8);
+            writeVarint(out, utf8.length + 1L);
+            out.write(utf8);
+        }
+    }
+
+    public static MemberColumns readBinary(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        int version = data.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("unsupported member page version: " + version);
+        }
+        int flags = data.readUnsignedByte();
+        if ((flags & ~KNOWN_FLAGS) != 0) {
+            throw new IOException("unsupported member page flags: 0x" + Integer.toHexString(flags));
+        }
+        int page = (int) readVarint(data);
+        int size = (int) readVarint(data);
+        Long totalElements = (flags & HAS_TOTAL) != 0 ? readVarint(data) : null;
+        int count = (int) readVarint(data);
+
+        long[] ids = new long[count];
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            long zigzag = readVarint(data);
+            previous += (zigzag >>> 1) ^ -(zigzag & 1);
+            ids[i] = previous;
+        }
+        String[] names = new String[count];
+        for (int i = 0; i < count; i++) {
+            int length = (int) readVarint(data);
+            if (length > 0) {
+                byte[] utf8 = new byte[length - 1];
+                data.readFully(utf8);
+                names[i] = new String(utf8, StandardCharsets.UTF_8);
+            }
+        }
+        return new MemberColumns(ids, names, page, size, (flags & HAS_NEXT) != 0, totalElements);
+    }
+
+    /**
+     * {"content":[{"id":1,"name":"user0"}],"page":0,"size":5,"hasNext":true,"totalElements":100}
+     * Page 직렬화의 pageable / sort / first / last / numberOfElements 등은 뺀다. totalElements 는 count=none 이면 생략
+     */
+    public static void writeSlimJson(MemberColumns columns, JsonGenerator generator) throws IOException {
+        long[] ids = columns.getIds();
+        String[] names = columns.getNames();
+
+        generator.writeStartObject();
+        generator.writeArrayFieldStart("content");
+        for (int i = 0; i < ids.length; i++) {
+            generator.writeStartObject();
+            generator.writeNumberField("id", ids[i]);
+            generator.writeStringField("name", names[i]);
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        generator.writeNumberField("page", columns.getPage());
+        generator.writeNumberField("size", columns.getSize());
+        generator.writeBooleanField("hasNext", columns.isHasNext());
+        if (columns.getTotalElements() != null) {
+            generator.writeNumberField("totalElements", columns.getTotalElements());
+        }
+        generator.writeEndObject();
+        generator.flush();
+    }
+
+    private static void writeVarint(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarint(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("malformed varint");
+    }
+}
@@ -0,0 +1,62 @@
+package study.datajpa.controller;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import study.datajpa.dto.MemberColumns;
+
+import java.io.IOException;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description writes MemberColumns as application/vnd.member-page (binary) or application/vnd.member-page+json
+ **********************************************************************************************************************/
+public class MemberColumnsHttpMessageConverter extends AbstractHttpMessageConverter<MemberColumns> {
+
+    public static final String BINARY_VALUE = "application/vnd.member-page";
+    public static final String SLIM_JSON_VALUE = "application/vnd.member-page+json";
+    public static final MediaType BINARY = MediaType.valueOf(BINARY_VALUE);
+    public static final MediaType SLIM_JSON = MediaType.valueOf(SLIM_JSON_VALUE);
+
+    private final ObjectMapper objectMapper;
+
+    public MemberColumnsHttpMessageConverter(ObjectMapper objectMapper) {
+        super(BINARY, SLIM_JSON);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return MemberColumns.class.isAssignableFrom(clazz);
+    }
+
+    // 응답 전용
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected MemberColumns readInternal(Class<? extends MemberColumns> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("member page formats are response only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(MemberColumns columns, HttpOutputMessage outputMessage) throws IOException {
+        MediaType contentType = outputMessage.getHeaders().getContentType();
+        if (contentType != null && SLIM_JSON.isCompatibleWith(contentType)) {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(outputMessage.getBody(), JsonEncoding.UTF8);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            MemberColumnsCodec.writeSlimJson(columns, generator);
+            generator.close();
+        } else {
+            MemberColumnsCodec.writeBinary(columns, outputMessage.getBody());
+        }
+    }
+}
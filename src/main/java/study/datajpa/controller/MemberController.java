@@ -1,18 +1,38 @@
 package study.datajpa.controller;
 
-import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import study.datajpa.common.async.BoundedExecutor;
+import study.datajpa.dto.CursorSlice;
+import study.datajpa.dto.MemberColumns;
+import study.datajpa.dto.MemberCursor;
 import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
 import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.index.MemberLookup;
+import study.datajpa.repository.index.MemberRow;
 
-import javax.annotation.PostConstruct;
-import java.util.Optional;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * @author sony
@@ -20,31 +40,140 @@ import java.util.Optional;
  * @since 2023.01.06
  **********************************************************************************************************************/
 @RestController
-@RequiredArgsConstructor
 public class MemberController {
 
+    private static final int MAX_SLICE_SIZE = 100;
+    private static final int EXPORT_FETCH_SIZE = 500;
+
     private final MemberRepository memberRepository;
+    private final ObjectMapper objectMapper;
+    private final MemberLookup memberLookup;
+    private final BoundedExecutor memberExecutor;
+    private final TransactionTemplate readOnlyTransaction;
 
-    @PostConstruct
-    public void init() {
-        for (int i = 0; i < 100; i++) {
-            memberRepository.save(new Member("user" + i, i));
-        }
+    public MemberController(MemberRepository memberRepository, ObjectMapper objectMapper, MemberLookup memberLookup,
+                            BoundedExecutor memberExecutor, PlatformTransactionManager transactionManager) {
+        this.memberRepository = memberRepository;
+        this.objectMapper = objectMapper;
+        this.memberLookup = memberLookup;
+        this.memberExecutor = memberExecutor;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
     }
 
     @GetMapping("/members/{id}")
-    public String findMember(@PathVariable("id") Long id) {
-        Member member = memberRepository.findById(id).get();
-        return member.getName();
+    public CompletableFuture<String> findMember(@PathVariable("id") Long id) {
+        return readAsync(() -> memberRepository.findById(id).get().getName());
+    }
+
+    // 이름 / 나이 조회는 MemberLookup (member.index.enabled 면 메모리 인덱스, 아니면 DB)
+    // 인덱스 조회는 마이크로초 단위라 memberExecutor 로 넘기지 않는다
+    @GetMapping("/members/search")
+    public List<MemberRow> search(@RequestParam("name") String name,
+                                  @RequestParam(value = "minAge", required = false) Integer minAge) {
+        return minAge == null
+                ? memberLookup.findByName(name)
+                : memberLookup.findByNameAndAgeGreaterThan(name, minAge);
+    }
+
+    @GetMapping("/members/age/{age}")
+    public List<MemberRow> findByAge(@PathVariable("age") int age) {
+        return memberLookup.findByAge(age);
     }
 
+    @GetMapping("/members/age/{age}/count")
+    public long countByAge(@PathVariable("age") int age) {
+        return memberLookup.countByAge(age);
+    }
+
+    @Transactional(readOnly = true)
     @GetMapping("/members2/{id}")
     public String findMember2(@PathVariable("id") Member member) {
         return member.getName();
     }
 
-    @GetMapping("/members")
-    public Page<MemberDto> getPage(@PageableDefault(size = 5)Pageable pageable) {
-        return memberRepository.findAll(pageable).map(MemberDto::new);
+    // count=exact(기본) | cached(캐시된 전체 건수) | none(Slice, count 쿼리 없음)
+    // getPageCompact 와 params 조건이 같아야 produces 로 골라진다 (params 가 더 구체적인 쪽이 먼저 선택됨)
+    @GetMapping(value = "/members", params = "!cursor")
+    public CompletableFuture<Slice<MemberDto>> getPage(@PageableDefault(size = 5)Pageable pageable,
+                                                       @RequestParam(value = "count", defaultValue = "exact") String count) {
+        return readAsync(() -> findMemberDtos(pageable, count));
+    }
+
+    // Accept: application/vnd.member-page (binary) | application/vnd.member-page+json (slim json)
+    // Accept 가 없거나 */* , application/json 이면 위의 기본 Page json 이 선택됨
+    @GetMapping(value = "/members", params = "!cursor",
+            produces = {MemberColumnsHttpMessageConverter.BINARY_VALUE, MemberColumnsHttpMessageConverter.SLIM_JSON_VALUE})
+    public CompletableFuture<MemberColumns> getPageCompact(@PageableDefault(size = 5) Pageable pageable,
+                                                           @RequestParam(value = "count", defaultValue = "exact") String count) {
+        MemberColumns.Total total = MemberColumns.Total.of(count);
+        return readAsync(() -> memberRepository.findMemberColumns(pageable, total));
+    }
+
+    // @Transactional 은 요청 스레드에만 걸리므로 memberExecutor 스레드에서 readOnly 트랜잭션을 연다
+    // (내용 + count 조회가 한 트랜잭션/커넥션, replica 라우팅과 flush 생략도 그대로)
+    private <T> CompletableFuture<T> readAsync(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(() -> readOnlyTransaction.execute(status -> query.get()), memberExecutor);
+    }
+
+    private Slice<MemberDto> findMemberDtos(Pageable pageable, String count) {
+        switch (count) {
+            case "none":
+                return memberRepository.findMemberDtoSlice(pageable);
+            case "cached":
+                return memberRepository.findMemberDtoPageCachedCount(pageable);
+            default:
+                return memberRepository.findMemberDtoPage(pageable);
+        }
+    }
+
+    @GetMapping(value = "/members", params = "cursor")
+    public CompletableFuture<CursorSlice<MemberDto>> getSlice(@RequestParam("cursor") String cursor,
+                                                              @RequestParam(value = "sort", defaultValue = "id") String sort,
+                                                              @RequestParam(value = "size", defaultValue = "5") int size) {
+        MemberCursor memberCursor = cursor.isEmpty()
+                ? MemberCursor.first("name".equals(sort))
+                : decodeCursor(cursor);
+        int sliceSize = Math.min(Math.max(size, 1), MAX_SLICE_SIZE);
+        return readAsync(() -> memberRepository.findMemberSlice(memberCursor, sliceSize));
+    }
+
+    // 클라이언트가 보낸 cursor 가 깨졌으면 500 이 아니라 400
+    private MemberCursor decodeCursor(String cursor) {
+        try {
+            return MemberCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    @GetMapping("/members/export")
+    public void export(@RequestParam(value = "format", defaultValue = "ndjson") String format,
+                       HttpServletResponse response) throws IOException {
+        boolean csv = "csv".equals(format);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setContentType(csv ? "text/csv" : "application/x-ndjson");
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+        if (csv) {
+            writer.write("id,name\n");
+        }
+        try (Stream<MemberDto> members = memberRepository.streamMemberDto(EXPORT_FETCH_SIZE)) {
+            int count = 0;
+            for (MemberDto dto : (Iterable<MemberDto>) members::iterator) {
+                writer.write(csv ? toCsvLine(dto) : objectMapper.writeValueAsString(dto));
+                writer.write('\n');
+                if (++count % EXPORT_FETCH_SIZE == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    private String toCsvLine(MemberDto dto) {
+        String name = dto.getName() == null ? "" : dto.getName();
+        return dto.getId() + ",\"" + name.replace("\"", "\"\"") + "\"";
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,29 @@
+package study.datajpa.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description registers the compact member page formats
+ **********************************************************************************************************************/
+@Configuration
+public class MemberFormatConfig implements WebMvcConfigurer {
+
+    private final ObjectMapper objectMapper;
+
+    public MemberFormatConfig(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    // MemberColumns 만 처리하므로 순서는 상관없음
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new MemberColumnsHttpMessageConverter(objectMapper));
+    }
+}
@@ -0,0 +1,29 @@
+package study.datajpa.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import study.datajpa.dto.TeamDto;
+import study.datajpa.repository.TeamRepository;
+
+/**
+ * @author sony
+ * @description team controller
+ * @since 2023.01.06
+ **********************************************************************************************************************/
+@RestController
+@RequiredArgsConstructor
+public class TeamController {
+
+    private final TeamRepository teamRepository;
+
+    @Transactional(readOnly = true)
+    @GetMapping("/teams")
+    public Page<TeamDto> getPage(@PageableDefault(size = 5) Pageable pageable) {
+        return teamRepository.findAll(pageable).map(TeamDto::new);
+    }
+}
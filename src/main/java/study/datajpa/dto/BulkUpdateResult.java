@@ -0,0 +1,30 @@
+package study.datajpa.dto;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description bulk update job result
+ **********************************************************************************************************************/
+@Getter
+@ToString
+public class BulkUpdateResult {
+
+    private final long updatedRows;
+    private final int executedChunks;
+    private final int skippedChunks;
+    private final long elapsedMillis;
+
+    public BulkUpdateResult(long updatedRows, int executedChunks, int skippedChunks, long elapsedMillis) {
+        this.updatedRows = updatedRows;
+        this.executedChunks = executedChunks;
+        this.skippedChunks = skippedChunks;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public double getRowsPerSecond() {
+        return elapsedMillis == 0 ? updatedRows : updatedRows * 1000.0 / elapsedMillis;
+    }
+}
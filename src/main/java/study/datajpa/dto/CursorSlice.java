@@ -0,0 +1,20 @@
+package study.datajpa.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description cursor slice
+ **********************************************************************************************************************/
+@Getter
+@AllArgsConstructor
+public class CursorSlice<T> {
+
+    private List<T> content;
+    private String nextCursor;
+    private boolean hasNext;
+}
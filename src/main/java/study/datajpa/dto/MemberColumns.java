@@ -0,0 +1,40 @@
+package study.datajpa.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description one page of members as id / name columns (compact response formats, no per row objects)
+ **********************************************************************************************************************/
+@Getter
+@AllArgsConstructor
+public class MemberColumns {
+
+    // GET /members 의 count 파라미터와 같은 의미, 알 수 없는 값은 EXACT
+    public enum Total {
+        EXACT, CACHED, NONE;
+
+        public static Total of(String count) {
+            for (Total total : values()) {
+                if (total.name().equalsIgnoreCase(count)) {
+                    return total;
+                }
+            }
+            return EXACT;
+        }
+    }
+
+    private final long[] ids;
+    private final String[] names;
+    private final int page;
+    private final int size;
+    private final boolean hasNext;
+    // Total.NONE 이면 null
+    private final Long totalElements;
+
+    public int getCount() {
+        return ids.length;
+    }
+}
@@ -0,0 +1,74 @@
+package study.datajpa.dto;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description member keyset cursor
+ **********************************************************************************************************************/
+@Getter
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class MemberCursor {
+
+    private static final String ID_PREFIX = "i";
+    private static final String NAME_PREFIX = "n";
+
+    private Long id;
+    private String name;
+    private boolean nameOrdered;
+
+    public static MemberCursor first(boolean nameOrdered) {
+        MemberCursor cursor = new MemberCursor();
+        cursor.nameOrdered = nameOrdered;
+        return cursor;
+    }
+
+    public static MemberCursor after(MemberDto last, boolean nameOrdered) {
+        MemberCursor cursor = first(nameOrdered);
+        cursor.id = last.getId();
+        cursor.name = nameOrdered ? last.getName() : null;
+        return cursor;
+    }
+
+    public boolean isFirst() {
+        return id == null;
+    }
+
+    public String encode() {
+        String raw = nameOrdered
+                ? NAME_PREFIX + ":" + id + ":" + name
+                : ID_PREFIX + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static MemberCursor decode(String token) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("invalid cursor: " + token, e);
+        }
+
+        String[] parts = raw.split(":", 3);
+        boolean nameOrdered = NAME_PREFIX.equals(parts[0]);
+        if (!nameOrdered && !ID_PREFIX.equals(parts[0]) || parts.length < 2 || nameOrdered && parts.length < 3) {
+            throw new IllegalArgumentException("invalid cursor: " + token);
+        }
+
+        MemberCursor cursor = first(nameOrdered);
+        try {
+            cursor.id = Long.valueOf(parts[1]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid cursor: " + token, e);
+        }
+        cursor.name = nameOrdered ? parts[2] : null;
+        return cursor;
+    }
+}
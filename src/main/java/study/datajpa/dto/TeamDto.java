@@ -0,0 +1,28 @@
+package study.datajpa.dto;
+
+import lombok.Data;
+import study.datajpa.entity.Team;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description team dto
+ **********************************************************************************************************************/
+@Data
+public class TeamDto {
+
+    private Long id;
+    private String name;
+    private List<MemberDto> members;
+
+    public TeamDto(Team team) {
+        this.id = team.getId();
+        this.name = team.getName();
+        this.members = team.getMembers().stream()
+                .map(MemberDto::new)
+                .collect(Collectors.toList());
+    }
+}
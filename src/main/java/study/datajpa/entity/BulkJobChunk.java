@@ -0,0 +1,46 @@
+package study.datajpa.entity;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import study.datajpa.common.entity.BaseTimeEntity;
+
+import javax.persistence.*;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description completed chunk of a bulk update job (used to resume)
+ **********************************************************************************************************************/
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString(of = {"jobId", "age", "chunkSize", "fromId", "toId", "updatedRows"})
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"job_id", "from_id"}))
+public class BulkJobChunk extends BaseTimeEntity {
+
+    @Id @GeneratedValue
+    @Column(name = "bulk_job_chunk_id")
+    private Long id;
+
+    @Column(name = "job_id", nullable = false)
+    private String jobId;
+    // 구간 경계와 대상이 같아야 이어서 실행할 수 있으므로 실행 인자를 구간마다 함께 기록
+    private int age;
+    private int chunkSize;
+    @Column(name = "from_id", nullable = false)
+    private Long fromId;
+    @Column(name = "to_id", nullable = false)
+    private Long toId;
+    private int updatedRows;
+
+    public BulkJobChunk(String jobId, int age, int chunkSize, Long fromId, Long toId, int updatedRows) {
+        this.jobId = jobId;
+        this.age = age;
+        this.chunkSize = chunkSize;
+        this.fromId = fromId;
+        this.toId = toId;
+        this.updatedRows = updatedRows;
+    }
+}
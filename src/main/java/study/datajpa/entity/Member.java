@@ -1,7 +1,11 @@
 package study.datajpa.entity;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 import study.datajpa.common.entity.BaseEntity;
+import study.datajpa.repository.index.MemberIndexListener;
 
 import javax.persistence.*;
 
@@ -11,17 +15,41 @@ import javax.persistence.*;
  * @description member
  **********************************************************************************************************************/
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+// 변경된 컬럼만 update (version, lastModified* 는 매번 포함)
+@DynamicUpdate
+@EntityListeners(MemberIndexListener.class)
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = { "id", "name", "age"})
-@NamedQuery(
-        name = "Member.findByName",
-        query = "select m from Member m where m.name = :name"
-)
+@NamedQueries({
+        @NamedQuery(
+                name = "Member.findByName",
+                query = "select m from Member m where m.name = :name",
+                hints = @QueryHint(name = "org.hibernate.cacheable", value = "true")
+        ),
+        // MemberJpaRepository 용, 부팅 시 파싱/검증 (spring data 메서드 이름과 겹치지 않게)
+        @NamedQuery(name = "Member.selectAll", query = "select m from Member m"),
+        @NamedQuery(name = "Member.countAll", query = "select count(m) from Member m"),
+        @NamedQuery(name = "Member.findByNameAndAgeGreaterThen",
+                query = "select m from Member m where m.name = :name and m.age > :age"),
+        @NamedQuery(name = "Member.findPageByAge",
+                query = "select m from Member m where m.age = :age order by m.name desc"),
+        @NamedQuery(name = "Member.totalCountByAge", query = "select count(m) from Member m where m.age = :age"),
+        @NamedQuery(name = "Member.bulkAgePlusFrom",
+                query = "update Member m set m.age = m.age + 1, m.version = m.version + 1 where m.age >= :age")
+})
 @NamedEntityGraph(name = "Member.all", attributeNodes = @NamedAttributeNode("team"))
+@Table(indexes = {
+        @Index(name = "idx_member_name_age", columnList = "name, age"),
+        @Index(name = "idx_member_age_name", columnList = "age, name"),
+        @Index(name = "idx_member_team_id", columnList = "TEAM_ID")
+})
+@SequenceGenerator(name = "member_seq_generator", sequenceName = "member_seq", allocationSize = 50)
 public class Member extends BaseEntity {
 
-    @Id @GeneratedValue
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq_generator")
     @Column(name = "member_id")
     private Long id;
     private String name;
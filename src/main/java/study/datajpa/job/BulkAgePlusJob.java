@@ -0,0 +1,139 @@
+package study.datajpa.job;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.dto.BulkUpdateResult;
+import study.datajpa.entity.BulkJobChunk;
+import study.datajpa.repository.BulkJobChunkRepository;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description chunked, resumable replacement for MemberRepository.bulkAgePlus
+ **********************************************************************************************************************/
+@Slf4j
+@Component
+public class BulkAgePlusJob {
+
+    private final MemberRepository memberRepository;
+    private final BulkJobChunkRepository chunkRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor executor;
+    // 호출한 쪽 영속성 컨텍스트 (트랜잭션/OSIV 에 묶인 공유 EntityManager)
+    private final EntityManager em;
+
+    public BulkAgePlusJob(MemberRepository memberRepository, BulkJobChunkRepository chunkRepository,
+                          EntityManager em, PlatformTransactionManager transactionManager,
+                          @Qualifier("bulkJobExecutor") ThreadPoolTaskExecutor executor) {
+        this.memberRepository = memberRepository;
+        this.chunkRepository = chunkRepository;
+        this.em = em;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.executor = executor;
+    }
+
+    /**
+     * id 구간(chunkSize)마다 별도 트랜잭션으로 update 하고 완료 구간을 같은 트랜잭션에 기록한다.
+     * 같은 jobId 로 다시 실행하면 완료된 구간은 건너뛴다. 구간 경계와 대상이 달라지지 않도록
+     * 처음 실행과 age / chunkSize 가 다르면 IllegalArgumentException.
+     * 동시에 도는 구간 수는 parallelism 과 bulkJobExecutor 크기 중 작은 값.
+     * bulkAgePlus(clearAutomatically) 처럼 끝나면(실패해도) 호출한 쪽 영속성 컨텍스트를 비운다.
+     * 구간은 다른 스레드에서 커밋되므로 호출한 쪽에서 이미 읽은 member 는 낡은 상태이기 때문
+     */
+    public BulkUpdateResult run(String jobId, int age, int chunkSize, int parallelism) {
+        if (chunkSize < 1 || parallelism < 1) {
+            throw new IllegalArgumentException("chunkSize and parallelism must be positive");
+        }
+        long start = System.currentTimeMillis();
+
+        List<BulkJobChunk> chunks = chunkRepository.findByJobId(jobId);
+        for (BulkJobChunk chunk : chunks) {
+            if (chunk.getAge() != age || chunk.getChunkSize() != chunkSize) {
+                throw new IllegalArgumentException(String.format(
+                        "job %s was started with age=%d, chunkSize=%d; resume it with the same parameters",
+                        jobId, chunk.getAge(), chunk.getChunkSize()));
+            }
+        }
+        Set<Long> completed = chunks.stream()
+                .map(BulkJobChunk::getFromId)
+                .collect(Collectors.toSet());
+
+        Long minId = memberRepository.findMinId();
+        Long maxId = memberRepository.findMaxId();
+        if (minId == null) {
+            return new BulkUpdateResult(0, 0, 0, 0);
+        }
+
+        Queue<long[]> ranges = new ConcurrentLinkedQueue<>();
+        int skipped = 0;
+        // 구간 경계를 chunkSize 배수로 맞춰야 min id 가 바뀌어도 재실행 시 같은 구간이 나온다
+        for (long fromId = Math.floorDiv(minId, chunkSize) * chunkSize; fromId <= maxId; fromId += chunkSize) {
+            if (completed.contains(fromId)) {
+                skipped++;
+                continue;
+            }
+            ranges.add(new long[]{fromId, fromId + chunkSize - 1});
+        }
+        int executed = ranges.size();
+
+        // 구간마다 task 를 만들지 않고 worker 가 queue 에서 꺼내 실행 (공유 executor 의 queue 를 채우지 않음)
+        int workers = Math.min(Math.min(parallelism, executor.getMaxPoolSize()), executed);
+        List<Future<Long>> futures = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            futures.add(executor.submit(() -> {
+                long rows = 0;
+                for (long[] range = ranges.poll(); range != null; range = ranges.poll()) {
+                    rows += runChunk(jobId, age, chunkSize, range[0], range[1]);
+                }
+                return rows;
+            }));
+        }
+
+        long updatedRows = 0;
+        try {
+            for (Future<Long> future : futures) {
+                updatedRows += future.get();
+            }
+        } catch (InterruptedException e) {
+            // 진행 중인 구간은 롤백되고 기록되지 않으므로 재실행 시 다시 실행됨
+            ranges.clear();
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("bulk job interrupted: " + jobId, e);
+        } catch (ExecutionException e) {
+            // 남은 구간은 실행하지 않음, 커밋된 구간은 기록돼 있어서 재실행 시 이어서 진행
+            ranges.clear();
+            throw new IllegalStateException("bulk job failed: " + jobId, e.getCause());
+        } finally {
+            em.clear();
+        }
+
+        BulkUpdateResult result = new BulkUpdateResult(updatedRows, executed, skipped,
+                System.currentTimeMillis() - start);
+        log.info("bulk job {} finished: {} ({} rows/sec)", jobId, result, (long) result.getRowsPerSecond());
+        return result;
+    }
+
+    private int runChunk(String jobId, int age, int chunkSize, long fromId, long toId) {
+        return transactionTemplate.execute(status -> {
+            int rows = memberRepository.bulkAgePlusInRange(age, fromId, toId);
+            chunkRepository.save(new BulkJobChunk(jobId, age, chunkSize, fromId, toId, rows));
+            return rows;
+        });
+    }
+}
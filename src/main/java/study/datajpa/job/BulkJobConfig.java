@@ -0,0 +1,29 @@
+package study.datajpa.job;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description shared, bounded executor for bulk jobs
+ **********************************************************************************************************************/
+@Configuration
+public class BulkJobConfig {
+
+    // 실행마다 풀을 만들지 않고 공유. 동시에 도는 청크 수 상한 = max-parallelism (커넥션 풀보다 작게)
+    // 동시에 여러 job 이 실행되면 나머지 worker 는 queue 에서 대기, queue 가 차면 TaskRejectedException
+    @Bean
+    public ThreadPoolTaskExecutor bulkJobExecutor(@Value("${member.bulk-job.max-parallelism:4}") int maxParallelism,
+                                                  @Value("${member.bulk-job.queue-capacity:16}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxParallelism);
+        executor.setMaxPoolSize(maxParallelism);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("bulk-job-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+}
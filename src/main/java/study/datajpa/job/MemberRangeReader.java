@@ -0,0 +1,148 @@
+package study.datajpa.job;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description reads all members as MemberDto by splitting the id space into ranges read in parallel
+ **********************************************************************************************************************/
+@Slf4j
+@Component
+public class MemberRangeReader implements DisposableBean {
+
+    private final MemberRepository memberRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    // 고정 크기라 동시에 잡는 커넥션은 parallelism 개를 넘지 않는다 (남는 구간은 queue 에서 대기)
+    private final ExecutorService executor;
+    private final int pageSize;
+
+    // 구간마다 커넥션을 하나씩 잡으므로 parallelism 은 커넥션 풀 크기보다 작게
+    public MemberRangeReader(MemberRepository memberRepository, PlatformTransactionManager transactionManager,
+                             @Value("${member.range-reader.parallelism:4}") int parallelism,
+                             @Value("${member.range-reader.page-size:1000}") int pageSize) {
+        this.memberRepository = memberRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(parallelism, task -> {
+            Thread thread = new Thread(task, "member-range-reader-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * id 순으로 합친 전체 결과. 구간별 결과를 메모리에 모으므로 보고서 크기의 결과에 사용
+     */
+    public List<MemberDto> readAll(int partitions) {
+        long start = System.currentTimeMillis();
+        List<MemberDto> result = read(partitions, null);
+        log.info("read {} members in {} partitions ({}ms)", result.size(), partitions, System.currentTimeMillis() - start);
+        return result;
+    }
+
+    /**
+     * 순서 없이 페이지 단위로 넘긴다. consumer 는 여러 스레드에서 동시에 호출되므로 스레드 안전해야 함
+     * consumer 는 구간의 readOnly 트랜잭션 안에서 호출되어 반환할 때까지 커넥션을 잡고 있으므로,
+     * 느린 처리(외부 호출, 파일 쓰기 등)는 consumer 안에서 별도 executor 로 넘길 것
+     * 읽은 건수 반환
+     */
+    public long stream(int partitions, Consumer<List<MemberDto>> consumer) {
+        long start = System.currentTimeMillis();
+        long[] count = new long[1];
+        read(partitions, page -> {
+            consumer.accept(page);
+            synchronized (count) {
+                count[0] += page.size();
+            }
+        });
+        log.info("streamed {} members in {} partitions ({}ms)", count[0], partitions, System.currentTimeMillis() - start);
+        return count[0];
+    }
+
+    private List<MemberDto> read(int partitions, Consumer<List<MemberDto>> consumer) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("partitions must be positive: " + partitions);
+        }
+        Long minId = memberRepository.findMinId();
+        Long maxId = memberRepository.findMaxId();
+        if (minId == null) {
+            return Collections.emptyList();
+        }
+        // 구간은 (afterId, toId], 첫 구간은 minId 를 포함하도록 minId - 1 부터. 한 페이지보다 잘게 나누지 않음
+        long afterId = minId - 1;
+        long span = maxId - afterId;
+        int ranges = (int) Math.max(1, Math.min(partitions, (span + pageSize - 1) / pageSize));
+        List<Future<List<MemberDto>>> futures = new ArrayList<>(ranges);
+        for (int i = 0; i < ranges; i++) {
+            long from = afterId + span * i / ranges;
+            long to = afterId + span * (i + 1) / ranges;
+            futures.add(executor.submit(() -> readRange(from, to, consumer)));
+        }
+
+        // 결과는 구간 순서대로 합친다
+        List<MemberDto> result = new ArrayList<>();
+        try {
+            for (Future<List<MemberDto>> future : futures) {
+                result.addAll(future.get());
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("member range read interrupted", e);
+        } catch (ExecutionException e) {
+            // 아직 시작하지 않은 구간은 실행하지 않음
+            futures.forEach(future -> future.cancel(false));
+            throw new IllegalStateException("member range read failed", e.getCause());
+        }
+        return result;
+    }
+
+    // 구간 하나는 한 readOnly 트랜잭션(커넥션)에서 keyset 으로 pageSize 씩, consumer 가 있으면 결과를 모으지 않음
+    private List<MemberDto> readRange(long afterId, long toId, Consumer<List<MemberDto>> consumer) {
+        return readOnlyTransaction.execute(status -> {
+            List<MemberDto> result = new ArrayList<>();
+            long cursor = afterId;
+            while (true) {
+                List<MemberDto> page = memberRepository.findDtoInRange(cursor, toId, PageRequest.of(0, pageSize));
+                if (page.isEmpty()) {
+                    return result;
+                }
+                if (consumer != null) {
+                    consumer.accept(page);
+                } else {
+                    result.addAll(page);
+                }
+                if (page.size() < pageSize) {
+                    return result;
+                }
+                cursor = page.get(page.size() - 1).getId();
+            }
+        });
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,81 @@
+package study.datajpa.job;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description loads sample members after the context is refreshed (replaces MemberController @PostConstruct init)
+ **********************************************************************************************************************/
+@Slf4j
+@Component
+public class MemberSeedRunner implements ApplicationRunner {
+
+    private final MemberRepository memberRepository;
+    private final int count;
+    private final int batchSize;
+    private final boolean async;
+    private volatile CompletableFuture<Integer> completion = CompletableFuture.completedFuture(0);
+
+    public MemberSeedRunner(MemberRepository memberRepository,
+                            @Value("${member.seed.count:100}") int count,
+                            @Value("${member.seed.batch-size:100}") int batchSize,
+                            @Value("${member.seed.async:true}") boolean async) {
+        this.memberRepository = memberRepository;
+        this.count = count;
+        this.batchSize = batchSize;
+        this.async = async;
+    }
+
+    // async 면 ready 를 기다리지 않고 별도 스레드에서 저장, 끝나면 스레드 종료
+    @Override
+    public void run(ApplicationArguments args) {
+        if (count < 1) {
+            return;
+        }
+        if (!async) {
+            completion = CompletableFuture.completedFuture(seed());
+            return;
+        }
+        ExecutorService executor = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "member-seed");
+            thread.setDaemon(true);
+            return thread;
+        });
+        completion = CompletableFuture.supplyAsync(this::seed, executor)
+                .whenComplete((saved, e) -> {
+                    executor.shutdown();
+                    if (e != null) {
+                        log.warn("member seed failed", e);
+                    }
+                });
+    }
+
+    private int seed() {
+        long start = System.currentTimeMillis();
+        List<Member> members = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            members.add(new Member("user" + i, i));
+        }
+        int saved = memberRepository.saveAllBatched(members, batchSize);
+        log.info("seeded {} members in {}ms", saved, System.currentTimeMillis() - start);
+        return saved;
+    }
+
+    // 저장된 건수로 완료, 비활성이면 0
+    public CompletableFuture<Integer> getCompletion() {
+        return completion;
+    }
+}
@@ -0,0 +1,16 @@
+package study.datajpa.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import study.datajpa.entity.BulkJobChunk;
+
+import java.util.List;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description bulk job chunk repository
+ **********************************************************************************************************************/
+public interface BulkJobChunkRepository extends JpaRepository<BulkJobChunk, Long> {
+
+    List<BulkJobChunk> findByJobId(String jobId);
+}
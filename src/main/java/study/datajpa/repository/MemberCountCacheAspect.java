@@ -0,0 +1,49 @@
+package study.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.datajpa.common.cache.CountCache;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description invalidates cached member counts after save / delete / bulk update commit
+ **********************************************************************************************************************/
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class MemberCountCacheAspect {
+
+    private final CountCache countCache;
+
+    // dirty checking 으로 바뀌는 age 등은 잡지 못하므로 ttl 로 보정
+    // 바깥 트랜잭션 안이면 커밋 전에 비우면 다른 스레드가 커밋 전 건수를 다시 캐시하므로 afterCommit 에 비운다
+    @AfterReturning("(this(study.datajpa.repository.MemberRepository) || within(study.datajpa.repository.MemberJpaRepository))" +
+            " && (execution(* save*(..)) || execution(* delete*(..)) || execution(* bulkAgePlus*(..)))")
+    public void invalidate() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            countCache.invalidateAll();
+            return;
+        }
+        // 트랜잭션당 한 번만 등록
+        if (TransactionSynchronizationManager.hasResource(MemberCountCacheAspect.class)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(MemberCountCacheAspect.class, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                countCache.invalidateAll();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(MemberCountCacheAspect.class);
+            }
+        });
+    }
+}
@@ -1,6 +1,8 @@
 package study.datajpa.repository;
 
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.entity.Member;
 
 import javax.persistence.EntityManager;
@@ -14,65 +16,81 @@ import java.util.Optional;
  * @description member jpa repository
  **********************************************************************************************************************/
 @Repository
+@Transactional(readOnly = true)
 public class MemberJpaRepository {
 
+    // spring data 리포지토리의 spring.data.repository.invocations 에 대응하는 타이머 (class, method 태그)
+    private static final String TIMER = "member.jpa.repository";
+
     @PersistenceContext
     private EntityManager em;
 
+    @Timed(TIMER)
+    @Transactional
     public Member save(Member member) {
         em.persist(member);
         return member;
     }
 
+    @Timed(TIMER)
     public List<Member> findAll() {
-        return em.createQuery("select m from Member m", Member.class)
+        return em.createNamedQuery("Member.selectAll", Member.class)
                 .getResultList();
     }
 
+    @Timed(TIMER)
     public Optional<Member> findById(Long id) {
         Member member = em.find(Member.class, id);
         return Optional.ofNullable(member);
     }
 
+    @Timed(TIMER)
     public long count() {
-        return em.createQuery("select count(m) from Member m", Long.class)
+        return em.createNamedQuery("Member.countAll", Long.class)
                 .getSingleResult();
     }
 
+    @Timed(TIMER)
+    @Transactional
     public void delete(Member member) {
         em.remove(member);
     }
 
+    @Timed(TIMER)
     public List<Member> findByNameAndAgeGreaterThen(String name, int age) {
-        return em.createQuery("select m from Member m where m.name = :name and m.age > :age", Member.class)
+        return em.createNamedQuery("Member.findByNameAndAgeGreaterThen", Member.class)
                 .setParameter("name", name)
                 .setParameter("age", age)
                 .getResultList();
     }
 
+    @Timed(TIMER)
     public List<Member> findByName(String name) {
         return em.createNamedQuery("Member.findByName", Member.class)
                 .setParameter("name", "회원1")
                 .getResultList();
     }
 
+    @Timed(TIMER)
     public List<Member> findByPage(int age, int offset, int limit) {
-        return em.createQuery("select m from Member m where m.age = :age order by m.name desc", Member.class)
+        return em.createNamedQuery("Member.findPageByAge", Member.class)
                 .setParameter("age", age)
                 .setFirstResult(offset)
                 .setMaxResults(limit)
                 .getResultList();
     }
 
+    @Timed(TIMER)
     public long totalCount(int age) {
-        return em.createQuery("select count(m) from Member m where m.age = :age", Long.class)
+        return em.createNamedQuery("Member.totalCountByAge", Long.class)
                 .setParameter("age", age)
                 .getSingleResult();
     }
 
+    @Timed(TIMER)
+    @Transactional
     public int bulkAgePlus(int age) {
-        return em.createQuery("update Member m set m.age = m.age + 1" +
-                        " where m.age >= :age")
+        return em.createNamedQuery("Member.bulkAgePlusFrom")
                 .setParameter("age", age)
                 .executeUpdate();
     }
@@ -2,8 +2,10 @@ package study.datajpa.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
 
@@ -17,6 +19,7 @@ import java.util.Optional;
  * @author      tony
  * @description member repository
  **********************************************************************************************************************/
+@Transactional(readOnly = true)
 public interface MemberRepository extends JpaRepository<Member, Long>, MemberRepositoryCustom {
 
     List<Member> findByNameAndAgeGreaterThan(String name, int age);
@@ -35,8 +38,21 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     @Query("select new study.datajpa.dto.MemberDto(m.id, m.name, t.name) from Member m join m.team t")
     List<MemberDto> findMemberDto();
 
-    @Query("select m from Member m where m.name in :names")
-    List<Member> findByNames(@Param("names") List<String> names);
+    @Query(value = "select new study.datajpa.dto.MemberDto(m.id, m.name) from Member m",
+            countQuery = "select count(m) from Member m")
+    Page<MemberDto> findMemberDtoPage(Pageable pageable);
+
+    // count 쿼리 없이 size + 1 건 조회로 다음 페이지 여부만 판단
+    @Query("select new study.datajpa.dto.MemberDto(m.id, m.name) from Member m")
+    Slice<MemberDto> findMemberDtoSlice(Pageable pageable);
+
+    Slice<Member> findSliceByAge(int age, Pageable pageable);
+
+    long countByAge(int age);
+
+    List<MemberSummary> findSummaryByName(String name);
+
+    <T> List<T> findProjectionsByName(String name, Class<T> type);
 
     List<Member> findListByName(String name);
     Member findMemberByName(String name);
@@ -48,10 +64,27 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     forCounting = true)
     Page<Member> findByAge(int age, Pageable pageable);
 
+    @Transactional
     @Modifying(clearAutomatically = true)
-    @Query("update Member m set m.age = m.age + 1 where m.age >= :age")
+    @Query("update Member m set m.age = m.age + 1, m.version = m.version + 1 where m.age >= :age")
     int bulkAgePlus(@Param("age") int age);
 
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Member m set m.age = m.age + 1, m.version = m.version + 1 where m.age >= :age and m.id between :fromId and :toId")
+    int bulkAgePlusInRange(@Param("age") int age, @Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    @Query("select min(m.id) from Member m")
+    Long findMinId();
+
+    @Query("select max(m.id) from Member m")
+    Long findMaxId();
+
+    // id 구간 안에서 afterId 이후를 pageable 크기만큼 (keyset, MemberRangeReader 용)
+    @Query("select new study.datajpa.dto.MemberDto(m.id, m.name) from Member m" +
+            " where m.id > :afterId and m.id <= :toId order by m.id asc")
+    List<MemberDto> findDtoInRange(@Param("afterId") long afterId, @Param("toId") long toId, Pageable pageable);
+
     @Query("select m from Member m left join fetch m.team")
     List<Member> findMemberWithTeam();
 
@@ -69,6 +102,11 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
 
     @QueryHints(value = @QueryHint(name = "org.hibernate.readOnly", value = "true"))
     Member findReadByName(String name);
+    @Transactional
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     List<Member> findLockByName(String name);
+
+    @Transactional
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Member> findLockById(Long id);
 }
\ No newline at end of file
@@ -1,8 +1,15 @@
 package study.datajpa.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import study.datajpa.dto.CursorSlice;
+import study.datajpa.dto.MemberColumns;
+import study.datajpa.dto.MemberCursor;
+import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * @since       2023.01.06
@@ -11,4 +18,23 @@ import java.util.List;
  **********************************************************************************************************************/
 public interface MemberRepositoryCustom {
     List<Member> findMemberCustom();
-}
\ No newline at end of file
+
+    List<Member> findByNames(List<String> names);
+
+    CursorSlice<MemberDto> findMemberSlice(MemberCursor cursor, int size);
+
+    Page<MemberDto> findMemberDtoPageCachedCount(Pageable pageable);
+
+    Page<Member> findByAgeCachedCount(int age, Pageable pageable);
+
+    MemberColumns findMemberColumns(Pageable pageable, MemberColumns.Total total);
+
+    /**
+     * batchSize 건마다 flush 후 em.clear() 한다. 호출하는 쪽 트랜잭션 안에서 부르면
+     * 그 영속성 컨텍스트의 다른 엔티티도 모두 준영속이 되므로, 이후 변경은 merge 하거나 다시 조회해야 반영된다.
+     * 다른 엔티티를 다루는 트랜잭션과 섞지 말고 단독으로 (또는 먼저 flush 한 뒤) 호출할 것
+     */
+    int saveAllBatched(Iterable<Member> members, int batchSize);
+
+    Stream<MemberDto> streamMemberDto(int fetchSize);
+}
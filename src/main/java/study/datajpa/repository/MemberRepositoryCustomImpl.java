@@ -1,24 +1,222 @@
 package study.datajpa.repository;
 
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.common.cache.CountCache;
+import study.datajpa.dto.CursorSlice;
+import study.datajpa.dto.MemberColumns;
+import study.datajpa.dto.MemberCursor;
+import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
 
 import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * @since       2023.01.06
  * @author      sony
  * @description member repository impl
  **********************************************************************************************************************/
-@RequiredArgsConstructor
 public class MemberRepositoryCustomImpl implements MemberRepositoryCustom{
 
     private final EntityManager em;
+    private final CountCache countCache;
+    private final int inClauseChunkSize;
+
+    public MemberRepositoryCustomImpl(EntityManager em, CountCache countCache,
+                                      @Value("${member.in-clause.chunk-size:512}") int inClauseChunkSize) {
+        this.em = em;
+        this.countCache = countCache;
+        this.inClauseChunkSize = inClauseChunkSize;
+    }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Member> findMemberCustom() {
         return em.createQuery("select m from Member m")
                 .getResultList();
     }
-}
\ No newline at end of file
+
+    // chunk-size 를 넘는 목록은 나눠서 조회 후 합친다. in 절 길이는 hibernate in_clause_parameter_padding 으로 2의 거듭제곱에 맞춤
+    @Override
+    @Transactional(readOnly = true)
+    public List<Member> findByNames(List<String> names) {
+        List<String> distinctNames = new ArrayList<>(new LinkedHashSet<>(names));
+        List<Member> result = new ArrayList<>();
+        for (int from = 0; from < distinctNames.size(); from += inClauseChunkSize) {
+            List<String> chunk = distinctNames.subList(from, Math.min(from + inClauseChunkSize, distinctNames.size()));
+            result.addAll(em.createQuery("select m from Member m where m.name in :names", Member.class)
+                    .setParameter("names", chunk)
+                    .getResultList());
+        }
+        return result;
+    }
+
+    // offset 대신 마지막 키 이후부터 조회, count 쿼리 없이 size + 1 건으로 다음 페이지 여부 판단
+    @Override
+    @Transactional(readOnly = true)
+    public CursorSlice<MemberDto> findMemberSlice(MemberCursor cursor, int size) {
+        TypedQuery<MemberDto> query = cursor.isNameOrdered()
+                ? nameKeysetQuery(cursor)
+                : idKeysetQuery(cursor);
+
+        List<MemberDto> content = query
+                .setMaxResults(size + 1)
+                .getResultList();
+
+        boolean hasNext = content.size() > size;
+        if (hasNext) {
+            content = content.subList(0, size);
+        }
+        String nextCursor = hasNext
+                ? MemberCursor.after(content.get(content.size() - 1), cursor.isNameOrdered()).encode()
+                : null;
+        return new CursorSlice<>(content, nextCursor, hasNext);
+    }
+
+    // 내용은 매번 조회하고 전체 건수만 CountCache 에서 (만료 전에는 백그라운드 갱신)
+    @Override
+    @Transactional(readOnly = true)
+    public Page<MemberDto> findMemberDtoPageCachedCount(Pageable pageable) {
+        String jpql = QueryUtils.applySorting(
+                "select new study.datajpa.dto.MemberDto(m.id, m.name) from Member m", pageable.getSort(), "m");
+        TypedQuery<MemberDto> query = em.createQuery(jpql, MemberDto.class);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset())
+                    .setMaxResults(pageable.getPageSize());
+        }
+        List<MemberDto> content = query.getResultList();
+
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> countCache.count("Member.count", this::countMembers));
+    }
+
+    // findByAge 의 count 를 age 별로 캐시 (key: 쿼리 + 파라미터)
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Member> findByAgeCachedCount(int age, Pageable pageable) {
+        String jpql = QueryUtils.applySorting("select m from Member m where m.age = :age", pageable.getSort(), "m");
+        TypedQuery<Member> query = em.createQuery(jpql, Member.class)
+                .setParameter("age", age);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset())
+                    .setMaxResults(pageable.getPageSize());
+        }
+        List<Member> content = query.getResultList();
+
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> countCache.count(Arrays.asList("Member.countByAge", age), () -> countMembersByAge(age)));
+    }
+
+    // MemberDto 대신 id / name 컬럼 배열로 바로 채운다. size + 1 건으로 다음 페이지 여부 판단
+    // 마지막 페이지면 offset + 건수가 전체 건수라 count 쿼리 생략
+    @Override
+    @Transactional(readOnly = true)
+    public MemberColumns findMemberColumns(Pageable pageable, MemberColumns.Total total) {
+        String jpql = QueryUtils.applySorting("select m.id, m.name from Member m", pageable.getSort(), "m");
+        TypedQuery<Object[]> query = em.createQuery(jpql, Object[].class);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset())
+                    .setMaxResults(pageable.getPageSize() + 1);
+        }
+        List<Object[]> rows = query.getResultList();
+
+        boolean hasNext = pageable.isPaged() && rows.size() > pageable.getPageSize();
+        int count = hasNext ? pageable.getPageSize() : rows.size();
+        long[] ids = new long[count];
+        String[] names = new String[count];
+        for (int i = 0; i < count; i++) {
+            Object[] row = rows.get(i);
+            ids[i] = (Long) row[0];
+            names[i] = (String) row[1];
+        }
+
+        long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+        Long totalElements;
+        if (total == MemberColumns.Total.NONE) {
+            totalElements = null;
+        } else if (!hasNext && (count > 0 || offset == 0)) {
+            totalElements = offset + count;
+        } else if (total == MemberColumns.Total.CACHED) {
+            totalElements = countCache.count("Member.count", this::countMembers);
+        } else {
+            totalElements = countMembers();
+        }
+        return new MemberColumns(ids, names, pageable.isPaged() ? pageable.getPageNumber() : 0,
+                pageable.isPaged() ? pageable.getPageSize() : count, hasNext, totalElements);
+    }
+
+    private long countMembersByAge(int age) {
+        return em.createQuery("select count(m) from Member m where m.age = :age", Long.class)
+                .setParameter("age", age)
+                .getSingleResult();
+    }
+
+    private long countMembers() {
+        return em.createQuery("select count(m) from Member m", Long.class)
+                .getSingleResult();
+    }
+
+    // batchSize 건마다 flush(JDBC batch insert) 후 clear 해서 영속성 컨텍스트 크기를 일정하게 유지
+    // clear 는 바깥 트랜잭션의 관리 엔티티까지 분리함 (MemberRepositoryCustom 참고). 롤백 가능하도록 REQUIRES_NEW 는 쓰지 않음
+    @Override
+    @Transactional
+    public int saveAllBatched(Iterable<Member> members, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+
+        int count = 0;
+        for (Member member : members) {
+            em.persist(member);
+            if (++count % batchSize == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.flush();
+        em.clear();
+        return count;
+    }
+
+    // forward-only 커서로 fetchSize 만큼씩 읽는다. DTO 프로젝션이라 영속성 컨텍스트에 쌓이지 않음
+    // 호출하는 쪽의 (readOnly) 트랜잭션 안에서 소비 후 close 해야 함
+    @Override
+    public Stream<MemberDto> streamMemberDto(int fetchSize) {
+        return em.createQuery("select new study.datajpa.dto.MemberDto(m.id, m.name) from Member m", MemberDto.class)
+                .setHint("org.hibernate.fetchSize", fetchSize)
+                .setHint("org.hibernate.readOnly", true)
+                .getResultStream();
+    }
+
+    private TypedQuery<MemberDto> idKeysetQuery(MemberCursor cursor) {
+        if (cursor.isFirst()) {
+            return em.createQuery("select new study.datajpa.dto.MemberDto(m.id, m.name) from Member m" +
+                    " order by m.id asc", MemberDto.class);
+        }
+        return em.createQuery("select new study.datajpa.dto.MemberDto(m.id, m.name) from Member m" +
+                        " where m.id > :id order by m.id asc", MemberDto.class)
+                .setParameter("id", cursor.getId());
+    }
+
+    private TypedQuery<MemberDto> nameKeysetQuery(MemberCursor cursor) {
+        if (cursor.isFirst()) {
+            return em.createQuery("select new study.datajpa.dto.MemberDto(m.id, m.name) from Member m" +
+                    " order by m.name asc, m.id asc", MemberDto.class);
+        }
+        return em.createQuery("select new study.datajpa.dto.MemberDto(m.id, m.name) from Member m" +
+                        " where m.name > :name or (m.name = :name and m.id > :id)" +
+                        " order by m.name asc, m.id asc", MemberDto.class)
+                .setParameter("name", cursor.getName())
+                .setParameter("id", cursor.getId());
+    }
+}
@@ -0,0 +1,13 @@
+package study.datajpa.repository;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description member closed projection (id, name only)
+ **********************************************************************************************************************/
+public interface MemberSummary {
+
+    Long getId();
+
+    String getName();
+}
@@ -0,0 +1,322 @@
+package study.datajpa.repository.index;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description in-memory member (id, name, age) index with off-heap columns and primitive lookup structures
+ **********************************************************************************************************************/
+public class MemberIndex {
+
+    private static final int NO_ROW = -1;
+    private static final int MIN_CAPACITY = 16;
+    private static final Comparator<MemberRow> BY_ID = Comparator.comparing(MemberRow::getId);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // 행 단위 컬럼 (off-heap). 행은 append 만 하고, 변경/삭제는 기존 행을 removed 로 표시 후 새 행 추가
+    private ByteBuffer ids;
+    private ByteBuffer ages;
+    private ByteBuffer nameOffsets;
+    private ByteBuffer nameLengths;
+    private ByteBuffer names;
+    private int nameBytes;
+
+    // 조회 구조 (heap, primitive 배열). 이름별 / 나이별 행은 head 에서 next* 배열로 연결
+    private int[] nameHashes;
+    private int[] nextByName;
+    private int[] nameTable;
+    private int[] nextByAge;
+    private BitSet removed;
+    private LongIntHashMap rowById;
+    private LongIntHashMap ageHead;
+    private LongIntHashMap countByAge;
+
+    private int capacity;
+    private int rows;
+    private int live;
+
+    public MemberIndex(int expectedSize) {
+        allocate(Math.max(expectedSize, MIN_CAPACITY), Math.max(expectedSize, MIN_CAPACITY) * 8);
+    }
+
+    public void upsert(long id, String name, int age) {
+        byte[] utf8 = name == null ? null : name.getBytes(StandardCharsets.UTF_8);
+        lock.writeLock().lock();
+        try {
+            removeRow(rowById.get(id, NO_ROW));
+            if (rows == capacity) {
+                compact(Math.max(MIN_CAPACITY, (live + 1) * 2));
+            }
+            append(id, utf8, age);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            int row = rowById.get(id, NO_ROW);
+            if (row != NO_ROW) {
+                removeRow(row);
+                rowById.put(id, NO_ROW);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<MemberRow> findByName(String name) {
+        return findByName(name, age -> true);
+    }
+
+    public List<MemberRow> findByNameAndAgeGreaterThan(String name, int age) {
+        return findByName(name, rowAge -> rowAge > age);
+    }
+
+    // 나이별 행 chain 만 따라가고, 살아있는 건수를 먼저 알기 때문에 모두 찾으면 멈춘다
+    public List<MemberRow> findByAge(int age) {
+        lock.readLock().lock();
+        try {
+            int remaining = countByAge.get(age, 0);
+            List<MemberRow> result = new ArrayList<>(remaining);
+            for (int row = ageHead.get(age, NO_ROW); row != NO_ROW && remaining > 0; row = nextByAge[row]) {
+                if (!removed.get(row)) {
+                    result.add(new MemberRow(ids.getLong(row * Long.BYTES), nameAt(row), age));
+                    remaining--;
+                }
+            }
+            result.sort(BY_ID);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int countByAge(int age) {
+        lock.readLock().lock();
+        try {
+            return countByAge.get(age, 0);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int countByAgeGreaterThan(int age) {
+        lock.readLock().lock();
+        try {
+            int[] count = new int[1];
+            countByAge.forEach((key, value) -> {
+                if (key > age) {
+                    count[0] += value;
+                }
+            });
+            return count[0];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return live;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long offHeapBytes() {
+        lock.readLock().lock();
+        try {
+            return (long) ids.capacity() + ages.capacity() + nameOffsets.capacity() + nameLengths.capacity()
+                    + names.capacity();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<MemberRow> findByName(String name, IntPredicate agePredicate) {
+        if (name == null) {
+            return Collections.emptyList();
+        }
+        byte[] utf8 = name.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(utf8);
+        lock.readLock().lock();
+        try {
+            List<MemberRow> result = new ArrayList<>();
+            for (int row = nameTable[findSlot(utf8, hash)] - 1; row != NO_ROW; row = nextByName[row]) {
+                int age = ages.getInt(row * Integer.BYTES);
+                if (!removed.get(row) && agePredicate.test(age)) {
+                    result.add(new MemberRow(ids.getLong(row * Long.BYTES), name, age));
+                }
+            }
+            result.sort(BY_ID);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void append(long id, byte[] utf8, int age) {
+        int row = rows++;
+        ids.putLong(row * Long.BYTES, id);
+        ages.putInt(row * Integer.BYTES, age);
+
+        if (utf8 == null) {
+            nameOffsets.putInt(row * Integer.BYTES, NO_ROW);
+            nameLengths.putInt(row * Integer.BYTES, 0);
+            nextByName[row] = NO_ROW;
+        } else {
+            ensureNameCapacity(utf8.length);
+            ByteBuffer target = names.duplicate();
+            target.position(nameBytes);
+            target.put(utf8);
+            nameOffsets.putInt(row * Integer.BYTES, nameBytes);
+            nameLengths.putInt(row * Integer.BYTES, utf8.length);
+            nameBytes += utf8.length;
+
+            // 이름별 최신 행이 head, 이전 행은 nextByName 으로 연결
+            int hash = hash(utf8);
+            int slot = findSlot(utf8, hash);
+            nameHashes[row] = hash;
+            nextByName[row] = nameTable[slot] - 1;
+            nameTable[slot] = row + 1;
+        }
+
+        // 나이별 최신 행이 head (removed 행은 compact 때 빠진다)
+        nextByAge[row] = ageHead.get(age, NO_ROW);
+        ageHead.put(age, row);
+
+        rowById.put(id, row);
+        countByAge.addTo(age, 1);
+        live++;
+    }
+
+    private void removeRow(int row) {
+        if (row == NO_ROW || removed.get(row)) {
+            return;
+        }
+        removed.set(row);
+        countByAge.addTo(ages.getInt(row * Integer.BYTES), -1);
+        live--;
+    }
+
+    // 살아있는 행만 새 구조로 옮긴다 (용량 확장 겸 removed 행 정리)
+    private void compact(int newCapacity) {
+        ByteBuffer oldIds = ids;
+        ByteBuffer oldAges = ages;
+        ByteBuffer oldOffsets = nameOffsets;
+        ByteBuffer oldLengths = nameLengths;
+        ByteBuffer oldNames = names;
+        BitSet oldRemoved = removed;
+        int oldRows = rows;
+
+        allocate(newCapacity, Math.max(nameBytes, MIN_CAPACITY));
+        for (int row = 0; row < oldRows; row++) {
+            if (oldRemoved.get(row)) {
+                continue;
+            }
+            int offset = oldOffsets.getInt(row * Integer.BYTES);
+            byte[] utf8 = null;
+            if (offset != NO_ROW) {
+                utf8 = new byte[oldLengths.getInt(row * Integer.BYTES)];
+                ByteBuffer source = oldNames.duplicate();
+                source.position(offset);
+                source.get(utf8);
+            }
+            append(oldIds.getLong(row * Long.BYTES), utf8, oldAges.getInt(row * Integer.BYTES));
+        }
+    }
+
+    private void allocate(int capacity, int nameCapacity) {
+        this.capacity = capacity;
+        ids = ByteBuffer.allocateDirect(capacity * Long.BYTES).order(ByteOrder.nativeOrder());
+        ages = ByteBuffer.allocateDirect(capacity * Integer.BYTES).order(ByteOrder.nativeOrder());
+        nameOffsets = ByteBuffer.allocateDirect(capacity * Integer.BYTES).order(ByteOrder.nativeOrder());
+        nameLengths = ByteBuffer.allocateDirect(capacity * Integer.BYTES).order(ByteOrder.nativeOrder());
+        names = ByteBuffer.allocateDirect(nameCapacity);
+        nameBytes = 0;
+
+        nameHashes = new int[capacity];
+        nextByName = new int[capacity];
+        nextByAge = new int[capacity];
+        // 서로 다른 이름 수 <= 행 수 이므로 용량의 두 배 이상이면 load factor 0.5 이하
+        nameTable = new int[Integer.highestOneBit(capacity * 2 - 1) << 1];
+        removed = new BitSet(capacity);
+        rowById = new LongIntHashMap(capacity);
+        ageHead = new LongIntHashMap(128);
+        countByAge = new LongIntHashMap(128);
+        rows = 0;
+        live = 0;
+    }
+
+    private void ensureNameCapacity(int length) {
+        if (nameBytes + length <= names.capacity()) {
+            return;
+        }
+        ByteBuffer grown = ByteBuffer.allocateDirect(Math.max(names.capacity() * 2, nameBytes + length));
+        ByteBuffer source = names.duplicate();
+        source.position(0);
+        source.limit(nameBytes);
+        grown.put(source);
+        names = grown;
+    }
+
+    private int findSlot(byte[] utf8, int hash) {
+        int mask = nameTable.length - 1;
+        int slot = hash & mask;
+        while (true) {
+            int head = nameTable[slot];
+            if (head == 0 || (nameHashes[head - 1] == hash && nameEquals(head - 1, utf8))) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private boolean nameEquals(int row, byte[] utf8) {
+        if (nameLengths.getInt(row * Integer.BYTES) != utf8.length) {
+            return false;
+        }
+        int offset = nameOffsets.getInt(row * Integer.BYTES);
+        for (int i = 0; i < utf8.length; i++) {
+            if (names.get(offset + i) != utf8[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String nameAt(int row) {
+        int offset = nameOffsets.getInt(row * Integer.BYTES);
+        if (offset == NO_ROW) {
+            return null;
+        }
+        byte[] utf8 = new byte[nameLengths.getInt(row * Integer.BYTES)];
+        ByteBuffer source = names.duplicate();
+        source.position(offset);
+        source.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static int hash(byte[] utf8) {
+        int hash = 0;
+        for (byte b : utf8) {
+            hash = 31 * hash + b;
+        }
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,27 @@
+package study.datajpa.repository.index;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description rebuilds the member read index after bulk updates
+ **********************************************************************************************************************/
+@Aspect
+@Component
+@ConditionalOnProperty(prefix = "member.index", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class MemberIndexAspect {
+
+    private final MemberReadIndex readIndex;
+
+    @AfterReturning("(this(study.datajpa.repository.MemberRepository) || within(study.datajpa.repository.MemberJpaRepository))" +
+            " && execution(* bulkAgePlus*(..))")
+    public void rebuild() {
+        readIndex.rebuildAfterCommit();
+    }
+}
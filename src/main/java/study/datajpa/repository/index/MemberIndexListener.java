@@ -0,0 +1,45 @@
+package study.datajpa.repository.index;
+
+import org.springframework.beans.factory.ObjectProvider;
+import study.datajpa.entity.Member;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description forwards member lifecycle events to MemberReadIndex (no-op unless member.index.enabled)
+ **********************************************************************************************************************/
+public class MemberIndexListener {
+
+    // EntityManagerFactory 생성 중에 만들어지므로 MemberReadIndex 는 이벤트 시점에 찾는다
+    private final ObjectProvider<MemberReadIndex> readIndex;
+
+    public MemberIndexListener(ObjectProvider<MemberReadIndex> readIndex) {
+        this.readIndex = readIndex;
+    }
+
+    // 값은 이벤트 시점에 복사 (커밋 전 추가 변경은 다음 @PostUpdate 로 들어옴)
+    @PostPersist
+    @PostUpdate
+    public void saved(Member member) {
+        MemberReadIndex index = readIndex.getIfAvailable();
+        if (index != null) {
+            long id = member.getId();
+            String name = member.getName();
+            int age = member.getAge();
+            index.afterCommit(memberIndex -> memberIndex.upsert(id, name, age));
+        }
+    }
+
+    @PostRemove
+    public void removed(Member member) {
+        MemberReadIndex index = readIndex.getIfAvailable();
+        if (index != null) {
+            long id = member.getId();
+            index.afterCommit(memberIndex -> memberIndex.remove(id));
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package study.datajpa.repository.index;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description name / age lookups answered by MemberReadIndex when it is enabled and built, otherwise by MemberRepository
+ **********************************************************************************************************************/
+@Component
+public class MemberLookup {
+
+    private final MemberRepository memberRepository;
+    // member.index.enabled=false 면 null
+    private final MemberReadIndex readIndex;
+
+    public MemberLookup(MemberRepository memberRepository, ObjectProvider<MemberReadIndex> readIndex) {
+        this.memberRepository = memberRepository;
+        this.readIndex = readIndex.getIfAvailable();
+    }
+
+    public List<MemberRow> findByName(String name) {
+        MemberIndex index = currentIndex();
+        return index != null ? index.findByName(name) : toRows(memberRepository.findByName(name));
+    }
+
+    public List<MemberRow> findByNameAndAgeGreaterThan(String name, int age) {
+        MemberIndex index = currentIndex();
+        return index != null
+                ? index.findByNameAndAgeGreaterThan(name, age)
+                : toRows(memberRepository.findByNameAndAgeGreaterThan(name, age));
+    }
+
+    public List<MemberRow> findByAge(int age) {
+        MemberIndex index = currentIndex();
+        return index != null
+                ? index.findByAge(age)
+                : toRows(memberRepository.findSliceByAge(age, Pageable.unpaged()).getContent());
+    }
+
+    public long countByAge(int age) {
+        MemberIndex index = currentIndex();
+        return index != null ? index.countByAge(age) : memberRepository.countByAge(age);
+    }
+
+    // 비활성이거나 재구축 중이면 null
+    private MemberIndex currentIndex() {
+        return readIndex != null ? readIndex.current() : null;
+    }
+
+    private List<MemberRow> toRows(List<Member> members) {
+        return members.stream()
+                .map(member -> new MemberRow(member.getId(), member.getName(), member.getAge()))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,191 @@
+package study.datajpa.repository.index;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description keeps MemberIndex in sync with committed member changes and rebuilds it after bulk updates
+ **********************************************************************************************************************/
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "member.index", name = "enabled", havingValue = "true")
+public class MemberReadIndex implements DisposableBean {
+
+    private final MemberRepository memberRepository;
+    private final EntityManager em;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int fetchSize;
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "member-index-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+
+    // 재구축 중이면 null (DB 로 조회). pending 과 generation 은 this 로 동기화
+    private volatile MemberIndex index;
+    private List<Consumer<MemberIndex>> pending;
+    private long generation;
+
+    public MemberReadIndex(MemberRepository memberRepository, EntityManager em,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${member.index.fetch-size:1000}") int fetchSize) {
+        this.memberRepository = memberRepository;
+        this.em = em;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.fetchSize = fetchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialBuild() {
+        scheduleRebuild();
+    }
+
+    public boolean isReady() {
+        return index != null;
+    }
+
+    // 재구축 중이면 null, 호출한 쪽(MemberLookup)이 DB 로 조회
+    public MemberIndex current() {
+        return index;
+    }
+
+    /**
+     * 엔티티 변경을 커밋 후 인덱스에 반영한다. 트랜잭션마다 변경을 모아 한 번에 적용하고 롤백되면 버린다.
+     */
+    public void afterCommit(Consumer<MemberIndex> change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(Collections.singletonList(change));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<Consumer<MemberIndex>> changes = (List<Consumer<MemberIndex>>) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            List<Consumer<MemberIndex>> collected = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, collected);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(collected);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(MemberReadIndex.this);
+                }
+            });
+            changes = collected;
+        }
+        changes.add(change);
+    }
+
+    // bulk update 는 엔티티 이벤트가 없으므로 커밋 후 전체 재구축
+    public void rebuildAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            scheduleRebuild();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                scheduleRebuild();
+            }
+        });
+    }
+
+    private synchronized void apply(List<Consumer<MemberIndex>> changes) {
+        if (pending != null) {
+            pending.addAll(changes);
+        }
+        MemberIndex current = index;
+        if (current != null) {
+            changes.forEach(change -> change.accept(current));
+        }
+    }
+
+    // 요청이 몰려도 실행 대기 중인 재구축은 하나
+    private void scheduleRebuild() {
+        synchronized (this) {
+            index = null;
+            generation++;
+            if (pending == null) {
+                pending = new ArrayList<>();
+            }
+        }
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            rebuilder.execute(this::rebuild);
+        }
+    }
+
+    private void rebuild() {
+        rebuildScheduled.set(false);
+        long started;
+        synchronized (this) {
+            started = generation;
+        }
+
+        long start = System.currentTimeMillis();
+        MemberIndex rebuilt;
+        try {
+            rebuilt = load();
+        } catch (RuntimeException e) {
+            log.warn("member index rebuild failed, serving from database", e);
+            synchronized (this) {
+                pending = null;
+            }
+            return;
+        }
+
+        synchronized (this) {
+            // 로딩 중에 다시 요청됐으면 다음 재구축이 게시
+            if (started != generation) {
+                return;
+            }
+            pending.forEach(change -> change.accept(rebuilt));
+            pending = null;
+            index = rebuilt;
+        }
+        log.info("member index rebuilt: {} members in {}ms ({} bytes off-heap)",
+                rebuilt.size(), System.currentTimeMillis() - start, rebuilt.offHeapBytes());
+    }
+
+    private MemberIndex load() {
+        return readOnlyTransaction.execute(status -> {
+            MemberIndex loaded = new MemberIndex((int) memberRepository.count());
+            try (Stream<Object[]> rows = em.createQuery("select m.id, m.name, m.age from Member m", Object[].class)
+                    .setHint("org.hibernate.fetchSize", fetchSize)
+                    .getResultStream()) {
+                rows.forEach(row -> loaded.upsert((Long) row[0], (String) row[1], (Integer) row[2]));
+            }
+            return loaded;
+        });
+    }
+
+    @Override
+    public void destroy() {
+        rebuilder.shutdownNow();
+    }
+}
@@ -0,0 +1,21 @@
+package study.datajpa.repository.index;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import study.datajpa.repository.MemberSummary;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description member id / name / age tuple served by MemberReadIndex
+ **********************************************************************************************************************/
+@Getter
+@ToString
+@AllArgsConstructor
+public class MemberRow implements MemberSummary {
+
+    private final Long id;
+    private final String name;
+    private final int age;
+}
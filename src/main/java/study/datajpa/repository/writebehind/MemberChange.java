@@ -0,0 +1,68 @@
+package study.datajpa.repository.writebehind;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+import javax.persistence.EntityManager;
+import java.util.Objects;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description latest buffered state of a member (name, age, team) and the version it was based on
+ **********************************************************************************************************************/
+@Getter
+@ToString
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class MemberChange {
+
+    private final long id;
+    private final String name;
+    private final int age;
+    private final Long teamId;
+    // 변경을 만든 시점의 @Version, flush 시 DB 의 version 과 다르면 그 사이 다른 커밋이 있었던 것
+    private final Long version;
+    // 실패한 flush 횟수 (메모리에만, 재시작하면 0)
+    private final int attempts;
+
+    // team 이 프록시여도 getId 는 초기화하지 않는다
+    public static MemberChange of(Member member) {
+        Team team = member.getTeam();
+        return of(member.getId(), member.getName(), member.getAge(), team == null ? null : team.getId(), member.getVersion());
+    }
+
+    public static MemberChange of(long id, String name, int age, Long teamId, Long version) {
+        return new MemberChange(id, name, age, teamId, version, 0);
+    }
+
+    MemberChange retried() {
+        return new MemberChange(id, name, age, teamId, version, attempts + 1);
+    }
+
+    // 변경을 만든 뒤 다른 트랜잭션이 member 를 커밋했는지
+    boolean conflictsWith(Member member) {
+        return !Objects.equals(version, member.getVersion());
+    }
+
+    // 이미 같은 상태인지 (커밋 후 삭제되지 못한 저널을 재생한 경우)
+    boolean isAppliedTo(Member member) {
+        Team team = member.getTeam();
+        return Objects.equals(name, member.getName()) && age == member.getAge()
+                && Objects.equals(teamId, team == null ? null : team.getId());
+    }
+
+    // 영속 상태의 member 에 적용, 실제 update 는 dirty checking 으로 바뀐 컬럼만
+    void applyTo(Member member, EntityManager em) {
+        member.setName(name);
+        member.setAge(age);
+        Team team = member.getTeam();
+        Long currentTeamId = team == null ? null : team.getId();
+        if (teamId == null ? currentTeamId != null : !teamId.equals(currentTeamId)) {
+            member.setTeam(teamId == null ? null : em.getReference(Team.class, teamId));
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package study.datajpa.repository.writebehind;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.writebehind.WriteBehindProperties.ConflictPolicy;
+import study.datajpa.repository.writebehind.WriteBehindProperties.Durability;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description buffers updates of existing members and writes the latest state per id in batches
+ **********************************************************************************************************************/
+@Slf4j
+public class MemberWriteBehind {
+
+    private static final long NO_SEGMENT = -1;
+
+    private final MemberRepository memberRepository;
+    private final EntityManager em;
+    private final TransactionTemplate transactionTemplate;
+    private final WriteBehindProperties properties;
+    private final MemberWriteBuffer buffer;
+    private final WriteBehindJournal journal;
+    // 저널 append + 버퍼 put (read) 과 segment 교체 + drain (write) 을 원자적으로 구분
+    private final ReadWriteLock rotation = new ReentrantReadWriteLock();
+    private final AtomicBoolean sizeTriggered = new AtomicBoolean();
+    private final AtomicLong conflicts = new AtomicLong();
+    private final AtomicLong deadLetters = new AtomicLong();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "member-write-behind");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public MemberWriteBehind(MemberRepository memberRepository, EntityManager em,
+                             PlatformTransactionManager transactionManager, WriteBehindProperties properties) {
+        this.memberRepository = memberRepository;
+        this.em = em;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.buffer = new MemberWriteBuffer(properties.getStripes());
+        this.journal = properties.getDurability() == Durability.MEMORY
+                ? null
+                : new WriteBehindJournal(Paths.get(properties.getJournalDirectory()),
+                        properties.getDurability() == Durability.JOURNAL_SYNC);
+    }
+
+    // 이전 프로세스가 flush 하지 못한 변경을 저널에서 복구한 뒤 주기 flush 시작
+    public void start() {
+        if (journal != null) {
+            List<MemberChange> recovered = journal.replay();
+            recovered.forEach(buffer::put);
+            if (!recovered.isEmpty()) {
+                log.info("recovered {} buffered member changes ({} members) from journal",
+                        recovered.size(), buffer.pending());
+            }
+        }
+        long interval = properties.getInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 저장된 member 의 현재 상태를 버퍼에 넣고 바로 반환한다. id 가 없는 새 member 는 바로 저장.
+     * 반환 시점의 내구성은 durability 설정을 따르고, 다음 flush 전까지 DB 조회에는 보이지 않는다.
+     * member 의 version 이 기준이므로 flush 뒤에 다시 변경하려면 member 를 다시 조회해야 한다 (on-conflict 참고)
+     */
+    public Member save(Member member) {
+        if (member.getId() == null) {
+            return memberRepository.save(member);
+        }
+        save(MemberChange.of(member));
+        return member;
+    }
+
+    // 엔티티 없이 만든 변경 (여러 스레드가 같은 detached member 를 고치지 않도록)
+    public void save(MemberChange change) {
+        if (journal == null) {
+            buffer.put(change);
+        } else {
+            rotation.readLock().lock();
+            try {
+                journal.append(change);
+                buffer.put(change);
+            } finally {
+                rotation.readLock().unlock();
+            }
+        }
+
+        if (buffer.pending() >= properties.getMaxPending() && sizeTriggered.compareAndSet(false, true)) {
+            scheduler.execute(() -> {
+                sizeTriggered.set(false);
+                flushQuietly();
+            });
+        }
+    }
+
+    /**
+     * 버퍼를 비우고 batchSize 건씩 트랜잭션으로 반영한다. 실패한 묶음은 한 건씩 다시 시도해서 나머지는 반영하고,
+     * 실패한 변경만 버퍼와 현재 segment 로 되돌린 뒤 봉인된 segment 를 지운다. maxAttempts 번 실패하면 dead letter.
+     * 반영한 member 수 반환 (그 사이 삭제된 member, version 충돌로 건너뛴 변경은 제외)
+     */
+    public synchronized int flush() {
+        long sealed = NO_SEGMENT;
+        List<MemberChange> changes;
+        if (journal == null) {
+            changes = buffer.drain();
+        } else {
+            rotation.writeLock().lock();
+            try {
+                sealed = journal.rotate();
+                changes = buffer.drain();
+            } finally {
+                rotation.writeLock().unlock();
+            }
+        }
+
+        int written = 0;
+        List<MemberChange> failed = new ArrayList<>();
+        for (int from = 0; from < changes.size(); from += properties.getBatchSize()) {
+            List<MemberChange> batch = changes.subList(from, Math.min(from + properties.getBatchSize(), changes.size()));
+            try {
+                written += write(batch);
+            } catch (RuntimeException e) {
+                // 일시적 장애면 한 건씩 해도 실패하므로 그대로 되돌린다
+                if (batch.size() == 1 || isTransient(e)) {
+                    batch.forEach(change -> onFailure(change, e, failed));
+                    continue;
+                }
+                log.warn("write-behind batch of {} changes failed, retrying one by one", batch.size(), e);
+                for (MemberChange change : batch) {
+                    try {
+                        written += write(Collections.singletonList(change));
+                    } catch (RuntimeException rowFailure) {
+                        onFailure(change, rowFailure, failed);
+                    }
+                }
+            }
+        }
+        requeue(failed);
+        if (journal != null) {
+            journal.deleteUpTo(sealed);
+        }
+        return written;
+    }
+
+    public int getPending() {
+        return buffer.pending();
+    }
+
+    // on-conflict=SKIP 으로 버린 변경 수
+    public long getConflicts() {
+        return conflicts.get();
+    }
+
+    // maxAttempts 번 실패해서 버린 변경 수 (저널 모드면 journal-directory/member-dead-letter.log 에 기록)
+    public long getDeadLetters() {
+        return deadLetters.get();
+    }
+
+    // 남은 변경을 반영하고 종료
+    public void close() throws IOException {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(properties.getInterval().toMillis() * 2, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    // 변경마다 in 절 한 번으로 조회 후 dirty checking (hibernate jdbc batch 로 update)
+    // version 이 달라진 member 는 on-conflict 에 따라 건너뛰거나 덮어쓴다
+    private int write(List<MemberChange> batch) {
+        List<MemberChange> skipped = new ArrayList<>();
+        int written = transactionTemplate.execute(status -> {
+            List<Long> ids = batch.stream().map(MemberChange::getId).collect(Collectors.toList());
+            Map<Long, Member> members = memberRepository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(Member::getId, Function.identity()));
+            int count = 0;
+            for (MemberChange change : batch) {
+                Member member = members.get(change.getId());
+                if (member == null) {
+                    continue;
+                }
+                if (properties.getOnConflict() == ConflictPolicy.SKIP && change.conflictsWith(member)) {
+                    if (!change.isAppliedTo(member)) {
+                        skipped.add(change);
+                    }
+                    continue;
+                }
+                change.applyTo(member, em);
+                count++;
+            }
+            return count;
+        });
+        // 롤백되면 다시 시도하므로 커밋된 뒤에만 집계
+        for (MemberChange change : skipped) {
+            conflicts.incrementAndGet();
+            log.warn("write-behind change skipped, member {} was committed after version {}", change.getId(), change.getVersion());
+        }
+        return written;
+    }
+
+    // 영구 실패만 횟수를 센다. 일시적 장애(커넥션, lock 경합 등)는 횟수 없이 다음 flush 에 다시
+    private void onFailure(MemberChange change, RuntimeException cause, List<MemberChange> failed) {
+        if (isTransient(cause)) {
+            failed.add(change);
+            return;
+        }
+        MemberChange retried = change.retried();
+        if (retried.getAttempts() < properties.getMaxAttempts()) {
+            failed.add(retried);
+            return;
+        }
+        deadLetters.incrementAndGet();
+        log.error("write-behind change dropped after {} attempts: {}", retried.getAttempts(), change, cause);
+        if (journal != null) {
+            journal.deadLetter(change, String.valueOf(NestedExceptionUtils.getMostSpecificCause(cause)));
+        }
+    }
+
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException || e instanceof RecoverableDataAccessException
+                || e instanceof TransactionException;
+    }
+
+    // 되돌린 변경은 현재 segment 에 다시 기록해야 봉인된 segment 를 지울 수 있다
+    // 같은 id 의 save 와 저널 순서가 뒤바뀌지 않도록 write lock
+    private void requeue(List<MemberChange> failed) {
+        if (failed.isEmpty()) {
+            return;
+        }
+        if (journal == null) {
+            buffer.requeue(failed);
+        } else {
+            rotation.writeLock().lock();
+            try {
+                buffer.requeue(failed).forEach(journal::append);
+            } finally {
+                rotation.writeLock().unlock();
+            }
+        }
+        log.warn("write-behind flush failed, {} changes requeued", failed.size());
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("write-behind flush failed", e);
+        }
+    }
+}
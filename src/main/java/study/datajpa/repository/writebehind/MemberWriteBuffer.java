@@ -0,0 +1,68 @@
+package study.datajpa.repository.writebehind;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description striped buffer that keeps only the latest change per member id
+ **********************************************************************************************************************/
+class MemberWriteBuffer {
+
+    private final ConcurrentHashMap<Long, MemberChange>[] stripes;
+    private final AtomicInteger pending = new AtomicInteger();
+
+    @SuppressWarnings("unchecked")
+    MemberWriteBuffer(int stripeCount) {
+        stripes = (ConcurrentHashMap<Long, MemberChange>[]) new ConcurrentHashMap<?, ?>[Math.max(stripeCount, 1)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    // 같은 id 가 이미 있으면 덮어쓴다 (coalescing)
+    void put(MemberChange change) {
+        if (stripe(change.getId()).put(change.getId(), change) == null) {
+            pending.incrementAndGet();
+        }
+    }
+
+    // flush 실패분을 되돌린다. 그 사이 들어온 더 최신 변경이 있으면 그쪽을 유지, 되돌린 변경만 반환
+    List<MemberChange> requeue(List<MemberChange> changes) {
+        List<MemberChange> requeued = new ArrayList<>(changes.size());
+        for (MemberChange change : changes) {
+            if (stripe(change.getId()).putIfAbsent(change.getId(), change) == null) {
+                pending.incrementAndGet();
+                requeued.add(change);
+            }
+        }
+        return requeued;
+    }
+
+    // 꺼내는 사이 같은 id 로 새 변경이 들어오면 remove(key, value) 가 실패해서 다음 drain 에 남는다
+    List<MemberChange> drain() {
+        List<MemberChange> drained = new ArrayList<>(Math.max(pending.get(), 0));
+        for (ConcurrentHashMap<Long, MemberChange> stripe : stripes) {
+            for (Map.Entry<Long, MemberChange> entry : stripe.entrySet()) {
+                if (stripe.remove(entry.getKey(), entry.getValue())) {
+                    drained.add(entry.getValue());
+                    pending.decrementAndGet();
+                }
+            }
+        }
+        return drained;
+    }
+
+    // 동시 put/drain 중에는 근사값, size trigger 에만 사용
+    int pending() {
+        return pending.get();
+    }
+
+    private ConcurrentHashMap<Long, MemberChange> stripe(long id) {
+        return stripes[(int) ((id ^ (id >>> 32)) & 0x7fffffff) % stripes.length];
+    }
+}
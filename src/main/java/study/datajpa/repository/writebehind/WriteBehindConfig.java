@@ -0,0 +1,28 @@
+package study.datajpa.repository.writebehind;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description member write-behind config
+ **********************************************************************************************************************/
+@Configuration
+@EnableConfigurationProperties(WriteBehindProperties.class)
+@ConditionalOnProperty(prefix = "member.write-behind", name = "enabled", havingValue = "true")
+public class WriteBehindConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public MemberWriteBehind memberWriteBehind(MemberRepository memberRepository, EntityManager em,
+                                               PlatformTransactionManager transactionManager,
+                                               WriteBehindProperties properties) {
+        return new MemberWriteBehind(memberRepository, em, transactionManager, properties);
+    }
+}
@@ -0,0 +1,198 @@
+package study.datajpa.repository.writebehind;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description append-only segment files holding buffered member changes until they are written to the database
+ **********************************************************************************************************************/
+@Slf4j
+class WriteBehindJournal implements Closeable {
+
+    private static final String PREFIX = "member-";
+    private static final String SUFFIX = ".journal";
+    private static final String DEAD_LETTER = "member-dead-letter.log";
+    // length(int) + crc(int) 뒤에 id(long) version(long, 없으면 -1) age(int) teamId(long, 없으면 -1)
+    // nameLength(int, null 이면 -1) name(utf-8)
+    private static final int HEADER = Integer.BYTES * 2;
+    private static final int FIXED_PAYLOAD = Long.BYTES + Long.BYTES + Integer.BYTES + Long.BYTES + Integer.BYTES;
+
+    private final Path directory;
+    private final boolean sync;
+    private long segment;
+    private FileChannel channel;
+
+    WriteBehindJournal(Path directory, boolean sync) {
+        this.directory = directory;
+        this.sync = sync;
+        try {
+            Files.createDirectories(directory);
+            TreeMap<Long, Path> segments = segments();
+            segment = segments.isEmpty() ? 1 : segments.lastKey() + 1;
+            channel = open(segment);
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot open write-behind journal: " + directory, e);
+        }
+    }
+
+    /**
+     * 이전 프로세스가 남긴 segment 를 순서대로 읽는다. 장애로 잘린 마지막 레코드(길이/체크섬 불일치)는 버린다.
+     */
+    synchronized List<MemberChange> replay() {
+        List<MemberChange> changes = new ArrayList<>();
+        try {
+            for (Path path : segments().headMap(segment).values()) {
+                ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+                while (buffer.remaining() >= HEADER) {
+                    int length = buffer.getInt();
+                    int crc = buffer.getInt();
+                    if (length < FIXED_PAYLOAD || length > buffer.remaining() || crc != crc(buffer, length)) {
+                        log.warn("ignoring torn record at {}:{}", path.getFileName(), buffer.position() - HEADER);
+                        break;
+                    }
+                    changes.add(decode(buffer));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot replay write-behind journal: " + directory, e);
+        }
+        return changes;
+    }
+
+    synchronized void append(MemberChange change) {
+        ByteBuffer record = encode(change);
+        try {
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+            if (sync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot append to write-behind journal: " + directory, e);
+        }
+    }
+
+    /**
+     * 현재 segment 를 닫고 새 segment 를 연다. 닫힌 마지막 segment 번호를 반환 (비어 있으면 넘기지 않음)
+     */
+    synchronized long rotate() {
+        try {
+            if (channel.size() == 0) {
+                return segment - 1;
+            }
+            channel.force(false);
+            channel.close();
+            channel = open(++segment);
+            return segment - 1;
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot rotate write-behind journal: " + directory, e);
+        }
+    }
+
+    // DB 에 반영이 끝난 segment 삭제
+    synchronized void deleteUpTo(long sealed) {
+        try {
+            for (Path path : segments().headMap(sealed, true).values()) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            log.warn("cannot delete write-behind journal segments up to {}", sealed, e);
+        }
+    }
+
+    /**
+     * 재시도 한도를 넘은 변경을 한 줄씩 남긴다. segment 와 달리 재생하지 않으므로 확인 후 직접 반영
+     */
+    synchronized void deadLetter(MemberChange change, String reason) {
+        String line = String.format("%s\t%s\t%s%n", Instant.now(), change, reason.replace('\n', ' '));
+        try {
+            Files.write(directory.resolve(DEAD_LETTER), line.getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            log.error("cannot write dead letter {}", change, e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    private FileChannel open(long number) throws IOException {
+        return FileChannel.open(directory.resolve(String.format("%s%016d%s", PREFIX, number, SUFFIX)),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private TreeMap<Long, Path> segments() throws IOException {
+        TreeMap<Long, Path> segments = new TreeMap<>();
+        try (DirectoryStream<Path> paths = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            for (Path path : paths) {
+                String fileName = path.getFileName().toString();
+                segments.put(Long.parseLong(fileName.substring(PREFIX.length(), fileName.length() - SUFFIX.length())), path);
+            }
+        }
+        return segments;
+    }
+
+    private static ByteBuffer encode(MemberChange change) {
+        byte[] name = change.getName() == null ? null : change.getName().getBytes(StandardCharsets.UTF_8);
+        int length = FIXED_PAYLOAD + (name == null ? 0 : name.length);
+        ByteBuffer record = ByteBuffer.allocate(HEADER + length);
+        record.putInt(length);
+        record.putInt(0);
+        record.putLong(change.getId());
+        record.putLong(change.getVersion() == null ? -1 : change.getVersion());
+        record.putInt(change.getAge());
+        record.putLong(change.getTeamId() == null ? -1 : change.getTeamId());
+        record.putInt(name == null ? -1 : name.length);
+        if (name != null) {
+            record.put(name);
+        }
+        record.position(HEADER);
+        record.putInt(Integer.BYTES, crc(record, length));
+        record.position(0);
+        return record;
+    }
+
+    private static MemberChange decode(ByteBuffer buffer) {
+        long id = buffer.getLong();
+        long version = buffer.getLong();
+        int age = buffer.getInt();
+        long teamId = buffer.getLong();
+        int nameLength = buffer.getInt();
+        String name = null;
+        if (nameLength >= 0) {
+            byte[] bytes = new byte[nameLength];
+            buffer.get(bytes);
+            name = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return MemberChange.of(id, name, age, teamId < 0 ? null : teamId, version < 0 ? null : version);
+    }
+
+    // position 부터 length 바이트의 체크섬 (position 은 그대로)
+    private static int crc(ByteBuffer buffer, int length) {
+        CRC32 crc = new CRC32();
+        ByteBuffer payload = buffer.duplicate();
+        payload.limit(payload.position() + length);
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,43 @@
+package study.datajpa.repository.writebehind;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description member write-behind properties
+ **********************************************************************************************************************/
+@Getter @Setter
+@ConfigurationProperties(prefix = "member.write-behind")
+public class WriteBehindProperties {
+
+    /**
+     * MEMORY       : 버퍼에만 보관. 프로세스가 죽으면 마지막 flush 이후 변경 유실
+     * JOURNAL      : 저널 파일에 기록 후 버퍼에 넣음. 프로세스 장애는 복구, OS/전원 장애는 page cache 미기록분 유실 가능
+     * JOURNAL_SYNC : 변경마다 fsync. 전원 장애까지 복구, 대신 save 마다 디스크 동기화 비용
+     */
+    public enum Durability { MEMORY, JOURNAL, JOURNAL_SYNC }
+
+    /**
+     * flush 시점의 member version 이 변경을 만든 시점과 다를 때 (increaseAge, bulkAgePlus, 직접 save 등이 먼저 커밋)
+     * SKIP      : 버퍼의 변경을 버리고 경고 로그. 이미 같은 상태면(커밋 후 저널 재생) 조용히 넘어간다
+     * OVERWRITE : 버퍼의 변경으로 덮어쓴다 (last writer wins). write-behind 만 member 를 쓰는 단일 writer 전용,
+     *             커밋 후 삭제되지 못한 저널을 재생하면 더 최신 행을 되돌릴 수 있다
+     */
+    public enum ConflictPolicy { SKIP, OVERWRITE }
+
+    private boolean enabled = false;
+    private Duration interval = Duration.ofMillis(200);
+    private int maxPending = 1000;
+    private int batchSize = 500;
+    private int stripes = 16;
+    private Durability durability = Durability.JOURNAL;
+    private String journalDirectory = "write-behind-journal";
+    private ConflictPolicy onConflict = ConflictPolicy.SKIP;
+    // FK 위반 등 영구 실패로 이 횟수만큼 flush 에 실패한 변경은 dead letter 로 (일시적 DB 장애는 세지 않음)
+    private int maxAttempts = 5;
+}
@@ -0,0 +1,42 @@
+package study.datajpa.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.common.retry.OptimisticRetry;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+/**
+ * @since       2023.01.06
+ * @author      sony
+ * @description member service
+ **********************************************************************************************************************/
+@Service
+@RequiredArgsConstructor
+public class MemberService {
+
+    private final MemberRepository memberRepository;
+
+    // version 충돌 시 OptimisticRetryAspect 가 새 트랜잭션으로 재시도
+    @OptimisticRetry(maxAttempts = 5)
+    @Transactional
+    public int increaseAge(Long memberId) {
+        Member member = findMember(memberId);
+        member.setAge(member.getAge() + 1);
+        return member.getAge();
+    }
+
+    @Transactional
+    public int increaseAgeWithLock(Long memberId) {
+        Member member = memberRepository.findLockById(memberId)
+                .orElseThrow(() -> new IllegalArgumentException("member not found: " + memberId));
+        member.setAge(member.getAge() + 1);
+        return member.getAge();
+    }
+
+    private Member findMember(Long memberId) {
+        return memberRepository.findById(memberId)
+                .orElseThrow(() -> new IllegalArgumentException("member not found: " + memberId));
+    }
+}
@@ -0,0 +1,38 @@
+package study.datajpa;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.common.startup.StartupTimingListener;
+import study.datajpa.job.MemberSeedRunner;
+import study.datajpa.repository.MemberRepository;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 공유 컨텍스트를 쓰지 않고 매번 새로 부팅해서 ready 까지의 시간을 잰다
+class StartupTimeTest {
+
+    private static final Duration READY_BUDGET = Duration.ofSeconds(15);
+
+    @Test
+    public void readyWithinBudget() throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DataJpaApplication.class)
+                // default properties 는 application.yml 보다 우선순위가 낮아서 인자로 넘긴다 (테스트 설정은 seed 0)
+                .run("--spring.datasource.url=jdbc:h2:mem:startup;DB_CLOSE_DELAY=-1", "--server.port=0",
+                        "--member.seed.count=100")) {
+            StartupTimingListener timing = context.getBean(StartupTimingListener.class);
+
+            // then
+            assertThat(timing.getPhases()).containsKeys("environment", "bean-definitions", "refresh", "runners");
+            assertThat(timing.getTimeToReady()).isLessThan(READY_BUDGET);
+
+            // 비동기 seed 는 ready 이후에 끝난다
+            int seeded = context.getBean(MemberSeedRunner.class).getCompletion().get(10, TimeUnit.SECONDS);
+            assertThat(seeded).isEqualTo(100);
+            assertThat(context.getBean(MemberRepository.class).count()).isGreaterThanOrEqualTo(100);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package study.datajpa.common.async;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedExecutorTest {
+
+    @Test
+    public void concurrencyIsCappedAndOverflowIsRejected() throws InterruptedException {
+        // virtual thread executor 처럼 task 마다 스레드를 만드는 delegate
+        ExecutorService delegate = Executors.newCachedThreadPool();
+        BoundedExecutor executor = new BoundedExecutor(delegate, 2, 3, task -> task);
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(5);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        // when: 실행 2 + 대기 3
+        for (int i = 0; i < 5; i++) {
+            executor.execute(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    running.decrementAndGet();
+                    finished.countDown();
+                }
+            });
+        }
+
+        // then: 먼저 들어간 2개가 둘 다 실행 중일 때 확인 (그 전에 release 하면 최대 동시 실행이 1로 보일 수 있음)
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(executor.getAvailablePermits()).isEqualTo(0);
+        assertThat(executor.getQueueSize()).isEqualTo(3);
+        assertThatThrownBy(() -> executor.execute(() -> { }))
+                .isInstanceOf(RejectedExecutionException.class);
+
+        release.countDown();
+        assertThat(finished.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(maxRunning.get()).isEqualTo(2);
+        executor.shutdown();
+    }
+}
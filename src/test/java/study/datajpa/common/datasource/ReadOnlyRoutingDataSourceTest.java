@@ -0,0 +1,38 @@
+package study.datajpa.common.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadOnlyRoutingDataSourceTest {
+
+    DataSource dataSource = ReplicaDataSourceConfig.routing(
+            new DriverManagerDataSource("jdbc:h2:mem:write;DB_CLOSE_DELAY=-1", "sa", ""),
+            new DriverManagerDataSource("jdbc:h2:mem:read;DB_CLOSE_DELAY=-1", "sa", ""));
+
+    @AfterEach
+    public void clear() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    public void routeByTransactionReadOnly() throws SQLException {
+        assertThat(connectedUrl()).startsWith("jdbc:h2:mem:write");
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertThat(connectedUrl()).startsWith("jdbc:h2:mem:read");
+    }
+
+    private String connectedUrl() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getMetaData().getURL();
+        }
+    }
+}
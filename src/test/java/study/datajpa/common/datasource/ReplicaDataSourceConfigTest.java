@@ -0,0 +1,52 @@
+package study.datajpa.common.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// write/read 를 같은 메모리 DB 로 두고, 어느 풀에서 커넥션을 썼는지는 풀별 hikaricp.connections.usage 건수로 확인
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+        "spring.datasource.replica.url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+        "spring.datasource.replica.username=sa"
+})
+class ReplicaDataSourceConfigTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    public void readOnlyTransactionUsesReplica() {
+        memberRepository.save(new Member("replica", 10));
+        long write = usage(ReplicaDataSourceConfig.WRITE);
+        long read = usage(ReplicaDataSourceConfig.READ);
+
+        // when: SimpleJpaRepository.count 는 @Transactional(readOnly = true)
+        long count = memberRepository.count();
+
+        // then
+        assertThat(count).isEqualTo(1);
+        assertThat(usage(ReplicaDataSourceConfig.READ)).isEqualTo(read + 1);
+        assertThat(usage(ReplicaDataSourceConfig.WRITE)).isEqualTo(write);
+
+        // when: save 는 readOnly 가 아닌 트랜잭션
+        memberRepository.save(new Member("replica", 20));
+
+        // then
+        assertThat(usage(ReplicaDataSourceConfig.WRITE)).isEqualTo(write + 1);
+        assertThat(usage(ReplicaDataSourceConfig.READ)).isEqualTo(read + 1);
+    }
+
+    private long usage(String pool) {
+        return meterRegistry.find("hikaricp.connections.usage").tag("pool", pool).timers().stream()
+                .mapToLong(timer -> timer.count())
+                .sum();
+    }
+}
@@ -0,0 +1,34 @@
+package study.datajpa.common.sql;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// threshold 0 이면 첫 statement 에서 거절. 별도 컨텍스트라 메모리 DB 사용
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:querycount;DB_CLOSE_DELAY=-1",
+        "query-count.enabled=true",
+        "query-count.mode=reject",
+        "query-count.threshold=0"
+})
+@AutoConfigureMockMvc
+class QueryCountGuardTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    public void rejectModeAnswersServiceUnavailable() throws Exception {
+        mockMvc.perform(get("/teams"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.error").value("query count exceeded"))
+                .andExpect(jsonPath("$.limit").value(0))
+                .andExpect(jsonPath("$.select").value(1));
+    }
+}
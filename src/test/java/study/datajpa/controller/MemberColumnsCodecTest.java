@@ -0,0 +1,72 @@
+package study.datajpa.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import study.datajpa.dto.MemberColumns;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MemberColumnsCodecTest {
+
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void binaryRoundTrip() throws IOException {
+        // id 가 줄어드는 정렬(name desc 등)과 null 이름도 포함
+        MemberColumns columns = new MemberColumns(new long[]{300, 5, 70000}, new String[]{"회원1", null, ""},
+                2, 3, true, 1234L);
+
+        // when
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MemberColumnsCodec.writeBinary(columns, out);
+        MemberColumns decoded = MemberColumnsCodec.readBinary(new ByteArrayInputStream(out.toByteArray()));
+
+        // then
+        assertThat(decoded.getIds()).containsExactly(300, 5, 70000);
+        assertThat(decoded.getNames()).containsExactly("회원1", null, "");
+        assertThat(decoded.getPage()).isEqualTo(2);
+        assertThat(decoded.getSize()).isEqualTo(3);
+        assertThat(decoded.isHasNext()).isTrue();
+        assertThat(decoded.getTotalElements()).isEqualTo(1234L);
+    }
+
+    @Test
+    public void rejectUnknownFlags() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MemberColumnsCodec.writeBinary(new MemberColumns(new long[]{1}, new String[]{"user0"}, 0, 1, false, null), out);
+        byte[] bytes = out.toByteArray();
+        // 새 버전의 서버가 이 클라이언트가 모르는 필드를 붙인 경우
+        bytes[1] |= 0x04;
+
+        // then
+        assertThatThrownBy(() -> MemberColumnsCodec.readBinary(new ByteArrayInputStream(bytes)))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("flags");
+    }
+
+    @Test
+    public void slimJsonWithoutTotal() throws IOException {
+        MemberColumns columns = new MemberColumns(new long[]{1, 2}, new String[]{"user0", "user1"}, 0, 2, false, null);
+
+        // when
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        MemberColumnsCodec.writeSlimJson(columns, generator);
+        generator.close();
+        JsonNode json = objectMapper.readTree(out.toByteArray());
+
+        // then
+        assertThat(json.get("content")).hasSize(2);
+        assertThat(json.get("content").get(1).get("name").asText()).isEqualTo("user1");
+        assertThat(json.get("hasNext").asBoolean()).isFalse();
+        assertThat(json.has("totalElements")).isFalse();
+        assertThat(json.has("pageable")).isFalse();
+    }
+}
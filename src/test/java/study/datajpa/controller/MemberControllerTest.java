@@ -0,0 +1,74 @@
+package study.datajpa.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// MockMvc 컨텍스트는 따로 뜨므로 공유 DB 의 스키마를 다시 만들지 않도록 메모리 DB 사용
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:membercontroller;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+class MemberControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    public void malformedCursorIsBadRequest() throws Exception {
+        // base64 가 아님 / prefix 가 없음 / id 가 숫자가 아님
+        for (String cursor : new String[]{"%%%", "eDox", "aTph"}) {
+            mockMvc.perform(get("/members").param("cursor", cursor))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Test
+    public void defaultAcceptGetsPageJson() throws Exception {
+        // Accept 없음 / */* / application/json 은 compact 형식이 아니라 기존 Page json
+        for (String accept : new String[]{null, MediaType.ALL_VALUE, MediaType.APPLICATION_JSON_VALUE}) {
+            MockHttpServletRequestBuilder builder = get("/members");
+            if (accept != null) {
+                builder.header(HttpHeaders.ACCEPT, accept);
+            }
+            perform(builder)
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$.pageable").exists())
+                    .andExpect(jsonPath("$.totalElements").exists());
+        }
+    }
+
+    @Test
+    public void compactAcceptGetsMemberPage() throws Exception {
+        perform(get("/members").accept(MemberColumnsHttpMessageConverter.BINARY))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MemberColumnsHttpMessageConverter.BINARY));
+
+        perform(get("/members").accept(MemberColumnsHttpMessageConverter.SLIM_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MemberColumnsHttpMessageConverter.SLIM_JSON))
+                .andExpect(jsonPath("$.hasNext").exists())
+                .andExpect(jsonPath("$.pageable").doesNotExist());
+    }
+
+    // 핸들러가 CompletableFuture 를 반환하므로 async 결과로 다시 dispatch
+    private ResultActions perform(MockHttpServletRequestBuilder builder) throws Exception {
+        MvcResult started = mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started));
+    }
+}
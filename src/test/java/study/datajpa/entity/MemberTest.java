@@ -9,8 +9,11 @@ import study.datajpa.repository.MemberRepository;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 @SpringBootTest
 @Transactional
 @Rollback(value = false)
@@ -68,4 +71,21 @@ class MemberTest {
         System.out.println("findMember.getCreatedBy() = " + findMember.getCreatedBy());
         System.out.println("findMember.getLastModifiedBy() = " + findMember.getLastModifiedBy());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void auditingFastPath() {
+        // given
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            members.add(new Member("audit" + i, i));
+        }
+
+        // when
+        memberRepository.saveAllBatched(members, 5);
+
+        // then 같은 트랜잭션에서는 시각/auditor 를 한 번만 계산
+        assertThat(members).extracting(Member::getCreatedBy).containsOnly("sony");
+        assertThat(members).extracting(Member::getCreatedDate).containsOnly(members.get(0).getCreatedDate());
+        assertThat(members.get(0).getLastModifiedDate()).isEqualTo(members.get(0).getCreatedDate());
+    }
+}
@@ -0,0 +1,90 @@
+package study.datajpa.job;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.dto.BulkUpdateResult;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// 청크마다 별도 스레드/트랜잭션에서 커밋되므로 테스트 트랜잭션을 쓰지 않는다
+@SpringBootTest
+class BulkAgePlusJobTest {
+
+    @Autowired
+    BulkAgePlusJob bulkAgePlusJob;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @PersistenceContext
+    EntityManager em;
+
+    @Test
+    public void chunkedAndResumable() {
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            members.add(new Member("job" + i, 200 + i));
+        }
+        memberRepository.saveAllBatched(members, 100);
+        long target = memberRepository.findAll().stream().filter(m -> m.getAge() >= 200).count();
+        String jobId = "bulkAgePlus-" + UUID.randomUUID();
+
+        // when
+        BulkUpdateResult first = bulkAgePlusJob.run(jobId, 200, 7, 3);
+        BulkUpdateResult resumed = bulkAgePlusJob.run(jobId, 200, 7, 3);
+
+        // then
+        assertThat(first.getUpdatedRows()).isEqualTo(target);
+        assertThat(resumed.getUpdatedRows()).isEqualTo(0);
+        assertThat(resumed.getExecutedChunks()).isEqualTo(0);
+        assertThat(resumed.getSkippedChunks()).isEqualTo(first.getExecutedChunks() + first.getSkippedChunks());
+        assertThat(memberRepository.findById(members.get(0).getId()).get().getAge()).isEqualTo(201);
+    }
+
+    @Test
+    public void resumeWithDifferentParametersIsRejected() {
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            members.add(new Member("resume" + i, 300 + i));
+        }
+        memberRepository.saveAllBatched(members, 100);
+        String jobId = "bulkAgePlus-" + UUID.randomUUID();
+        bulkAgePlusJob.run(jobId, 300, 7, 2);
+
+        // when / then: 구간 경계가 달라지거나 대상 나이가 달라지면 이어서 실행하지 않음
+        assertThatThrownBy(() -> bulkAgePlusJob.run(jobId, 300, 5, 2))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> bulkAgePlusJob.run(jobId, 301, 7, 2))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(memberRepository.findById(members.get(0).getId()).get().getAge()).isEqualTo(301);
+    }
+
+    @Test
+    public void clearsCallerPersistenceContext() {
+        Member member = memberRepository.save(new Member("jobClear", 400));
+        String jobId = "bulkAgePlus-" + UUID.randomUUID();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Member loaded = em.find(Member.class, member.getId());
+
+            // when: 구간은 다른 스레드의 트랜잭션에서 커밋됨
+            bulkAgePlusJob.run(jobId, 400, 100, 2);
+
+            // then: bulkAgePlus(clearAutomatically) 처럼 낡은 엔티티를 남기지 않음
+            assertThat(em.contains(loaded)).isFalse();
+            assertThat(em.find(Member.class, member.getId()).getAge()).isEqualTo(401);
+        });
+    }
+}
@@ -0,0 +1,75 @@
+package study.datajpa.job;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 구간마다 별도 스레드/트랜잭션에서 읽으므로 테스트 트랜잭션을 쓰지 않는다
+@SpringBootTest
+class MemberRangeReaderTest {
+
+    @Autowired
+    MemberRangeReader memberRangeReader;
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Test
+    public void readAllInOrder() {
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            members.add(new Member("range" + i, i % 100));
+        }
+        memberRepository.saveAllBatched(members, 500);
+
+        // when
+        List<MemberDto> result = memberRangeReader.readAll(4);
+
+        // then
+        assertThat(result).hasSize((int) memberRepository.count());
+        assertThat(result).isSortedAccordingTo(Comparator.comparing(MemberDto::getId));
+        assertThat(result).extracting("id").doesNotHaveDuplicates();
+    }
+
+    @Test
+    public void streamUnordered() {
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 1500; i++) {
+            members.add(new Member("rangeStream" + i, i % 100));
+        }
+        memberRepository.saveAllBatched(members, 500);
+
+        // when
+        AtomicLong pages = new AtomicLong();
+        long count = memberRangeReader.stream(3, page -> pages.incrementAndGet());
+
+        // then: 공유 DB 의 id 에 빈 구간이 있으면 페이지가 없는 구간도 있다
+        assertThat(count).isEqualTo(memberRepository.count());
+        assertThat(pages.get()).isPositive();
+    }
+
+    @Test
+    public void morePartitionsThanThreads() {
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            members.add(new Member("rangeQueued" + i, i % 100));
+        }
+        memberRepository.saveAllBatched(members, 500);
+
+        // when: parallelism(4) 보다 많은 구간은 queue 에서 대기
+        List<MemberDto> result = memberRangeReader.readAll(16);
+
+        // then
+        assertThat(result).hasSize((int) memberRepository.count());
+        assertThat(result).isSortedAccordingTo(Comparator.comparing(MemberDto::getId));
+    }
+}
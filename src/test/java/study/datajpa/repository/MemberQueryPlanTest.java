@@ -0,0 +1,68 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.annotation.Rollback;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.common.sql.QueryCount;
+import study.datajpa.common.sql.QueryCountHolder;
+import study.datajpa.entity.Member;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+@Rollback(value = false)
+class MemberQueryPlanTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+    @PersistenceContext
+    EntityManager em;
+
+    @Test
+    public void memberQueriesUseIndex() {
+        memberRepository.save(new Member("AAA", 10));
+        memberRepository.save(new Member("BBB", 20));
+        em.flush();
+        em.clear();
+
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("findByNameAndAgeGreaterThan", () -> memberRepository.findByNameAndAgeGreaterThan("AAA", 5));
+        queries.put("findByName", () -> memberRepository.findByName("AAA"));
+        queries.put("findUser", () -> memberRepository.findUser("AAA", 10));
+        queries.put("findByNames", () -> memberRepository.findByNames(Arrays.asList("AAA", "BBB")));
+        queries.put("findListByName", () -> memberRepository.findListByName("AAA"));
+        queries.put("findSliceByAge", () -> memberRepository.findSliceByAge(10, PageRequest.of(0, 3, Sort.by("name"))));
+        queries.put("jpa.findByNameAndAgeGreaterThen", () -> memberJpaRepository.findByNameAndAgeGreaterThen("AAA", 5));
+        queries.put("jpa.findByPage", () -> memberJpaRepository.findByPage(10, 0, 3));
+        queries.put("jpa.totalCount", () -> memberJpaRepository.totalCount(10));
+
+        // when
+        queries.forEach((name, query) -> {
+            QueryCount captured = QueryCountHolder.capture(query);
+
+            // then
+            assertThat(captured.getStatements()).as(name).isNotEmpty();
+            for (String sql : captured.getStatements()) {
+                String plan = explain(sql);
+                assertThat(plan).as(name + "\n" + plan).doesNotContainIgnoringCase("tableScan");
+            }
+        });
+    }
+
+    private String explain(String sql) {
+        return String.valueOf(em.createNativeQuery("explain " + sql).getSingleResult());
+    }
+}
@@ -1,22 +1,39 @@
 package study.datajpa.repository;
 
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.annotation.Rollback;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.common.cache.CountCache;
+import study.datajpa.common.sql.QueryCount;
+import study.datajpa.common.sql.QueryCountHolder;
+import study.datajpa.dto.CursorSlice;
+import study.datajpa.dto.MemberColumns;
+import study.datajpa.dto.MemberCursor;
 import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
 import study.datajpa.entity.Team;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -31,6 +48,10 @@ class MemberRepositoryTest {
     TeamRepository teamRepository;
     @PersistenceContext
     EntityManager em;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    CountCache countCache;
 
     @Test
     public void testMember() {
@@ -100,6 +121,23 @@ class MemberRepositoryTest {
         assertThat(findMember).isEqualTo(m1);
     }
 
+    // read-write 캐시는 트랜잭션 시작 뒤에 들어간 항목을 읽지 않으므로 조회마다 새 트랜잭션(테스트 트랜잭션 없이)
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void secondLevelCache() {
+        Member member = memberRepository.save(new Member("cached", 10));
+        em.getEntityManagerFactory().getCache().evict(Member.class, member.getId());
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        // when: 첫 조회는 DB 에서 읽어 캐시에 넣고 두 번째 조회는 캐시에서
+        memberRepository.findById(member.getId());
+        long hitCount = statistics.getSecondLevelCacheHitCount();
+        memberRepository.findById(member.getId());
+
+        // then
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(hitCount + 1);
+    }
+
     @Test
     public void queryTest() {
         Member m1 = new Member("AAA", 10);
@@ -141,6 +179,30 @@ class MemberRepositoryTest {
         }
     }
 
+    @Test
+    public void projections() {
+        // 공유 DB 에 이전 실행의 member 가 남아 있으므로 이름은 매번 새로, 페이지는 방금 저장한 세 건(id 역순)만 본다
+        String name = "projection-" + UUID.randomUUID();
+        Team teamA = teamRepository.save(new Team("teamA"));
+        Member m1 = memberRepository.save(new Member(name, 10, teamA));
+        Member m2 = memberRepository.save(new Member(name + "-2", 20, teamA));
+        Member m3 = memberRepository.save(new Member(name + "-3", 30, teamA));
+        em.flush();
+        em.clear();
+
+        // when
+        List<MemberSummary> summaries = memberRepository.findSummaryByName(name);
+        List<MemberSummary> dynamic = memberRepository.findProjectionsByName(name, MemberSummary.class);
+        Page<MemberDto> page = memberRepository.findMemberDtoPage(PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "id")));
+
+        // then
+        assertThat(summaries).extracting(MemberSummary::getName).containsExactly(name);
+        assertThat(dynamic).extracting(MemberSummary::getName).containsExactly(name);
+        assertThat(page.getContent()).extracting(MemberDto::getId).containsExactly(m3.getId(), m2.getId(), m1.getId());
+        assertThat(page.getContent()).extracting(MemberDto::getName).containsExactly(m3.getName(), m2.getName(), m1.getName());
+        assertThat(em.unwrap(Session.class).getStatistics().getEntityCount()).isEqualTo(0);
+    }
+
     @Test
     public void collectionTest() {
         Member m1 = new Member("AAA", 10);
@@ -154,6 +216,75 @@ class MemberRepositoryTest {
         }
     }
 
+    @Test
+    public void findByNamesDedupesAndChunks() {
+        for (int i = 0; i < 10; i++) {
+            memberRepository.save(new Member("inChunk" + i, i));
+        }
+        em.flush();
+        em.clear();
+        // chunk-size 4 로 만든 구현: 중복 제거 후 10개 이름 -> 4, 4, 2 세 번 조회
+        MemberRepositoryCustomImpl chunked = new MemberRepositoryCustomImpl(em, countCache, 4);
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            names.add("inChunk" + i);
+        }
+        names.addAll(Arrays.asList("inChunk0", "inChunk5", "inChunk9"));
+
+        // when
+        List<Member> found = new ArrayList<>();
+        QueryCount count = QueryCountHolder.count(() -> found.addAll(chunked.findByNames(names)));
+
+        // then
+        assertThat(found).extracting("name").containsExactlyInAnyOrder(
+                "inChunk0", "inChunk1", "inChunk2", "inChunk3", "inChunk4",
+                "inChunk5", "inChunk6", "inChunk7", "inChunk8", "inChunk9");
+        assertThat(count.getSelect()).isEqualTo(3);
+    }
+
+    @Test
+    public void memberColumnsPaging() {
+        for (int i = 0; i < 3; i++) {
+            memberRepository.save(new Member("columns" + i, i));
+        }
+        em.flush();
+        int total = (int) memberRepository.count();
+        List<MemberColumns> result = new ArrayList<>();
+
+        // 중간 페이지: size + 1 건 조회로 hasNext, exact 는 count 쿼리 추가 / none 은 count 없음
+        QueryCount middle = QueryCountHolder.count(() -> result.add(
+                memberRepository.findMemberColumns(PageRequest.of(0, total - 1, Sort.by("id")), MemberColumns.Total.EXACT)));
+        QueryCount middleNone = QueryCountHolder.count(() -> result.add(
+                memberRepository.findMemberColumns(PageRequest.of(0, total - 1, Sort.by("id")), MemberColumns.Total.NONE)));
+        // 딱 맞게 끝나는 마지막 페이지: 추가 1 건이 없으므로 hasNext=false, count 쿼리 없이 total 계산
+        QueryCount last = QueryCountHolder.count(() -> result.add(
+                memberRepository.findMemberColumns(PageRequest.of(0, total, Sort.by("id")), MemberColumns.Total.EXACT)));
+        // 범위를 벗어난 빈 페이지: offset 만으로는 total 을 모르므로 count 쿼리
+        QueryCount empty = QueryCountHolder.count(() -> result.add(
+                memberRepository.findMemberColumns(PageRequest.of(1, total, Sort.by("id")), MemberColumns.Total.EXACT)));
+
+        // then
+        assertThat(result.get(0).isHasNext()).isTrue();
+        assertThat(result.get(0).getCount()).isEqualTo(total - 1);
+        assertThat(result.get(0).getIds()).isSorted();
+        assertThat(result.get(0).getTotalElements()).isEqualTo(total);
+        assertThat(middle.getSelect()).isEqualTo(2);
+
+        assertThat(result.get(1).isHasNext()).isTrue();
+        assertThat(result.get(1).getTotalElements()).isNull();
+        assertThat(middleNone.getSelect()).isEqualTo(1);
+
+        assertThat(result.get(2).isHasNext()).isFalse();
+        assertThat(result.get(2).getCount()).isEqualTo(total);
+        assertThat(result.get(2).getTotalElements()).isEqualTo(total);
+        assertThat(last.getSelect()).isEqualTo(1);
+
+        assertThat(result.get(3).isHasNext()).isFalse();
+        assertThat(result.get(3).getCount()).isEqualTo(0);
+        assertThat(result.get(3).getTotalElements()).isEqualTo(total);
+        assertThat(empty.getSelect()).isEqualTo(2);
+    }
+
     @Test
     public void returnTypeTest() {
         Member m1 = new Member("AAA", 10);
@@ -194,6 +325,134 @@ class MemberRepositoryTest {
         assertThat(page.hasNext()).isTrue();
     }
 
+    @Test
+    public void slicePaging() {
+        for (int i = 1; i <= 4; i++) {
+            memberRepository.save(new Member("slice" + i, 77));
+        }
+        PageRequest pageRequest = PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "name"));
+
+        // when
+        QueryCount queryCount = QueryCountHolder.count(() -> memberRepository.findSliceByAge(77, pageRequest));
+        Slice<Member> slice = memberRepository.findSliceByAge(77, pageRequest);
+
+        // then
+        assertThat(slice.getContent()).extracting("name").containsExactly("slice4", "slice3", "slice2");
+        assertThat(slice.hasNext()).isTrue();
+        assertThat(queryCount.getSelect()).isEqualTo(1);
+    }
+
+    // 캐시는 커밋 후에 비워지므로 save 마다 커밋되도록 테스트 트랜잭션 없이 실행
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void cachedCountPaging() {
+        memberRepository.save(new Member("cachedCount", 10));
+        memberRepository.save(new Member("cachedCount", 10));
+        PageRequest pageRequest = PageRequest.of(0, 1);
+
+        // when
+        long before = memberRepository.findMemberDtoPageCachedCount(pageRequest).getTotalElements();
+        memberRepository.save(new Member("cachedCount", 10));
+        long after = memberRepository.findMemberDtoPageCachedCount(pageRequest).getTotalElements();
+
+        // then
+        assertThat(after).isEqualTo(before + 1);
+        assertThat(after).isEqualTo(memberRepository.count());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void cachedCountInvalidatedAfterCommit() {
+        memberRepository.save(new Member("cachedCommit", 10));
+        memberRepository.save(new Member("cachedCommit", 10));
+        PageRequest pageRequest = PageRequest.of(0, 1);
+        long before = memberRepository.findMemberDtoPageCachedCount(pageRequest).getTotalElements();
+
+        // when: 커밋 전에는 다른 트랜잭션이 보는 건수(이전 값)가 그대로 캐시에 남아 있다
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            memberRepository.save(new Member("cachedCommit", 10));
+            assertThat(memberRepository.findMemberDtoPageCachedCount(pageRequest).getTotalElements()).isEqualTo(before);
+        });
+
+        // then
+        assertThat(memberRepository.findMemberDtoPageCachedCount(pageRequest).getTotalElements()).isEqualTo(before + 1);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void cachedCountPerAge() {
+        int age = 7001;
+        memberRepository.save(new Member("cachedAge", age));
+        memberRepository.save(new Member("cachedAge", age));
+        memberRepository.save(new Member("cachedAge", age + 1));
+        PageRequest pageRequest = PageRequest.of(0, 1);
+
+        // when
+        long before = memberRepository.findByAgeCachedCount(age, pageRequest).getTotalElements();
+        long otherAge = memberRepository.findByAgeCachedCount(age + 1, PageRequest.of(1, 1)).getTotalElements();
+        memberRepository.save(new Member("cachedAge", age));
+        long after = memberRepository.findByAgeCachedCount(age, pageRequest).getTotalElements();
+
+        // then
+        assertThat(before).isEqualTo(after - 1);
+        assertThat(after).isEqualTo(memberRepository.countByAge(age));
+        assertThat(otherAge).isEqualTo(memberRepository.countByAge(age + 1));
+    }
+
+    @Test
+    public void keysetPaging() {
+        memberRepository.save(new Member("keyset3", 10));
+        memberRepository.save(new Member("keyset1", 10));
+        memberRepository.save(new Member("keyset2", 10));
+        memberRepository.save(new Member("keyset1", 20));
+        memberRepository.save(new Member("keyset4", 10));
+
+        // when
+        MemberCursor cursor = MemberCursor.after(new MemberDto(0L, "keyset"), true);
+        CursorSlice<MemberDto> first = memberRepository.findMemberSlice(cursor, 3);
+        CursorSlice<MemberDto> second = memberRepository.findMemberSlice(MemberCursor.decode(first.getNextCursor()), 3);
+
+        // then
+        assertThat(first.getContent()).extracting("name").containsExactly("keyset1", "keyset1", "keyset2");
+        assertThat(first.isHasNext()).isTrue();
+        assertThat(second.getContent()).extracting("name").startsWith("keyset3", "keyset4");
+    }
+
+    @Test
+    public void saveAllBatched() {
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            members.add(new Member("batch" + i, i));
+        }
+
+        // when
+        int savedCount = memberRepository.saveAllBatched(members, 100);
+
+        // then
+        assertThat(savedCount).isEqualTo(250);
+        assertThat(members).allMatch(m -> m.getId() != null);
+        assertThat(em.contains(members.get(0))).isFalse();
+        assertThat(memberRepository.findByNames(Arrays.asList("batch0", "batch249"))).hasSize(2);
+    }
+
+    @Test
+    public void streamMemberDto() {
+        memberRepository.save(new Member("stream1", 10));
+        memberRepository.save(new Member("stream2", 20));
+        em.flush();
+        em.clear();
+
+        // when
+        List<String> names;
+        try (Stream<MemberDto> stream = memberRepository.streamMemberDto(1)) {
+            names = stream.map(MemberDto::getName).collect(Collectors.toList());
+        }
+
+        // then
+        assertThat(names).contains("stream1", "stream2");
+        assertThat(names).hasSize((int) memberRepository.count());
+    }
+
     @Test
     public void bulkTest() throws Exception{
         memberRepository.save(new Member("member1", 10));
@@ -232,6 +491,24 @@ class MemberRepositoryTest {
         }
     }
 
+    @Test
+    public void findMemberWithTeamQueryCount() {
+        Team teamA = teamRepository.save(new Team("teamA"));
+        Team teamB = teamRepository.save(new Team("teamB"));
+        memberRepository.save(new Member("member1", 10, teamA));
+        memberRepository.save(new Member("member2", 10, teamB));
+        em.flush();
+        em.clear();
+
+        // when: left join fetch 라 공유 DB 의 팀 없는 member 도 함께 온다
+        QueryCount count = QueryCountHolder.count(() -> memberRepository.findMemberWithTeam().stream()
+                .filter(m -> m.getTeam() != null)
+                .forEach(m -> m.getTeam().getName()));
+
+        // then
+        assertThat(count.getSelect()).isEqualTo(1);
+    }
+
     @Test
     public void queryHint() {
         Member member1 = memberRepository.save(new Member("member1", 10));
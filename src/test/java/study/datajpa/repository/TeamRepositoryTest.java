@@ -0,0 +1,60 @@
+package study.datajpa.repository;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.annotation.Rollback;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.TeamDto;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+@Rollback(value = false)
+class TeamRepositoryTest {
+
+    @Autowired
+    TeamRepository teamRepository;
+    @Autowired
+    MemberRepository memberRepository;
+    @PersistenceContext
+    EntityManager em;
+
+    @Test
+    public void teamWithMembersPaging() {
+        assertThat(queryCountForTeamPage(5)).isLessThanOrEqualTo(3);
+        assertThat(queryCountForTeamPage(50)).isLessThanOrEqualTo(3);
+    }
+
+    // 페이지 조회 + count + members batch fetch, 팀 수와 무관하게 일정해야 함
+    private long queryCountForTeamPage(int teamCount) {
+        for (int i = 0; i < teamCount; i++) {
+            Team team = teamRepository.save(new Team("team" + i));
+            memberRepository.save(new Member("memberA" + i, 10, team));
+            memberRepository.save(new Member("memberB" + i, 20, team));
+        }
+        em.flush();
+        em.clear();
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        PageRequest pageRequest = PageRequest.of(0, teamCount, Sort.by(Sort.Direction.DESC, "id"));
+        Page<TeamDto> page = teamRepository.findAll(pageRequest).map(TeamDto::new);
+
+        assertThat(page.getContent()).hasSize(teamCount);
+        assertThat(page.getContent()).allMatch(team -> team.getMembers().size() == 2);
+        return statistics.getPrepareStatementCount();
+    }
+}
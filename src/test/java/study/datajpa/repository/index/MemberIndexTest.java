@@ -0,0 +1,68 @@
+package study.datajpa.repository.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberIndexTest {
+
+    @Test
+    public void findByNameAndAge() {
+        MemberIndex index = new MemberIndex(4);
+        index.upsert(1L, "AAA", 10);
+        index.upsert(2L, "AAA", 20);
+        index.upsert(3L, "BBB", 20);
+        index.upsert(4L, null, 20);
+
+        // then
+        assertThat(index.findByName("AAA")).extracting("id").containsExactly(1L, 2L);
+        assertThat(index.findByNameAndAgeGreaterThan("AAA", 15)).extracting("id").containsExactly(2L);
+        assertThat(index.findByName("CCC")).isEmpty();
+        assertThat(index.findByAge(20)).extracting("name").containsExactly("AAA", "BBB", null);
+        assertThat(index.countByAge(20)).isEqualTo(3);
+        assertThat(index.countByAgeGreaterThan(10)).isEqualTo(3);
+    }
+
+    @Test
+    public void updateAndRemove() {
+        MemberIndex index = new MemberIndex(4);
+        index.upsert(1L, "AAA", 10);
+        index.upsert(2L, "AAA", 10);
+
+        // when
+        index.upsert(1L, "BBB", 11);
+        index.remove(2L);
+
+        // then
+        assertThat(index.findByName("AAA")).isEmpty();
+        List<MemberRow> renamed = index.findByName("BBB");
+        assertThat(renamed).extracting("id").containsExactly(1L);
+        assertThat(renamed.get(0).getAge()).isEqualTo(11);
+        assertThat(index.countByAge(10)).isZero();
+        assertThat(index.findByAge(10)).isEmpty();
+        assertThat(index.findByAge(11)).extracting("id").containsExactly(1L);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void growAndCompact() {
+        MemberIndex index = new MemberIndex(16);
+
+        // when 용량을 여러 번 넘기면서 같은 id 를 계속 갱신
+        for (int round = 0; round < 5; round++) {
+            for (long id = 1; id <= 100; id++) {
+                index.upsert(id, "member" + id, round);
+            }
+        }
+
+        // then
+        assertThat(index.size()).isEqualTo(100);
+        assertThat(index.countByAge(4)).isEqualTo(100);
+        assertThat(index.countByAge(3)).isZero();
+        assertThat(index.findByName("member77")).extracting("age").containsExactly(4);
+        assertThat(index.findByAge(4)).hasSize(100);
+        assertThat(index.findByAge(3)).isEmpty();
+    }
+}
@@ -0,0 +1,45 @@
+package study.datajpa.repository.index;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 커밋 후에 인덱스에 반영되므로 테스트 트랜잭션을 쓰지 않는다
+// 별도 컨텍스트라 공유 DB 의 스키마를 다시 만들지 않도록 메모리 DB 사용
+@SpringBootTest(properties = {
+        "member.index.enabled=true",
+        "spring.datasource.url=jdbc:h2:mem:lookup;DB_CLOSE_DELAY=-1"
+})
+class MemberLookupTest {
+
+    @Autowired
+    MemberLookup memberLookup;
+    @Autowired
+    MemberReadIndex readIndex;
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Test
+    public void answeredFromIndexAfterCommit() throws InterruptedException {
+        // 부팅 후 첫 구축 대기
+        for (int i = 0; i < 100 && !readIndex.isReady(); i++) {
+            Thread.sleep(50);
+        }
+        assertThat(readIndex.isReady()).isTrue();
+
+        // when
+        Member saved = memberRepository.save(new Member("lookup", 6001));
+        memberRepository.save(new Member("lookup", 6002));
+
+        // then: 인덱스에 들어 있으므로 DB 와 같은 결과
+        assertThat(readIndex.current().findByName("lookup")).hasSize(2);
+        assertThat(memberLookup.findByName("lookup")).extracting("id").contains(saved.getId());
+        assertThat(memberLookup.findByNameAndAgeGreaterThan("lookup", 6001)).extracting("age").containsExactly(6002);
+        assertThat(memberLookup.findByAge(6001)).extracting("name").containsExactly("lookup");
+        assertThat(memberLookup.countByAge(6002)).isEqualTo(memberRepository.countByAge(6002));
+    }
+}
@@ -0,0 +1,220 @@
+package study.datajpa.repository.writebehind;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.writebehind.WriteBehindProperties.ConflictPolicy;
+import study.datajpa.repository.writebehind.WriteBehindProperties.Durability;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// flush 가 별도 트랜잭션으로 커밋되므로 테스트 트랜잭션을 쓰지 않는다
+// 장애는 close 없이 인스턴스를 버리는 것으로 흉내 (interval 을 길게 둬서 자동 flush 없음)
+@SpringBootTest
+class MemberWriteBehindTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    EntityManager em;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path journalDirectory;
+
+    @Test
+    public void coalesce() throws IOException {
+        Member member = memberRepository.save(new Member(unique(), 10));
+        MemberWriteBehind writeBehind = start(Durability.MEMORY);
+
+        // when
+        for (int age = 11; age <= 13; age++) {
+            member.setAge(age);
+            writeBehind.save(member);
+        }
+
+        // then
+        assertThat(writeBehind.getPending()).isEqualTo(1);
+        assertThat(writeBehind.flush()).isEqualTo(1);
+        assertThat(memberRepository.findById(member.getId()).get().getAge()).isEqualTo(13);
+        writeBehind.close();
+    }
+
+    @Test
+    public void recoverAfterCrash() throws IOException {
+        Member member = memberRepository.save(new Member(unique(), 10));
+        MemberWriteBehind crashed = start(Durability.JOURNAL_SYNC);
+        member.setAge(20);
+        crashed.save(member);
+
+        // when
+        MemberWriteBehind restarted = start(Durability.JOURNAL_SYNC);
+
+        // then
+        assertThat(restarted.getPending()).isEqualTo(1);
+        assertThat(restarted.flush()).isEqualTo(1);
+        assertThat(memberRepository.findById(member.getId()).get().getAge()).isEqualTo(20);
+        assertThat(segmentCount()).isEqualTo(1);
+        restarted.close();
+    }
+
+    @Test
+    public void ignoreTornRecord() throws IOException {
+        Member member = memberRepository.save(new Member(unique(), 10));
+        MemberWriteBehind crashed = start(Durability.JOURNAL);
+        member.setName(member.getName() + "-renamed");
+        crashed.save(member);
+        // 마지막 레코드를 쓰는 도중 죽은 경우
+        try (Stream<Path> segments = Files.list(journalDirectory)) {
+            Path segment = segments.sorted().reduce((first, second) -> second).get();
+            Files.write(segment, new byte[]{0, 0, 0, 100, 1, 2}, StandardOpenOption.APPEND);
+        }
+
+        // when
+        MemberWriteBehind restarted = start(Durability.JOURNAL);
+
+        // then
+        assertThat(restarted.flush()).isEqualTo(1);
+        assertThat(memberRepository.findById(member.getId()).get().getName()).endsWith("-renamed");
+        restarted.close();
+    }
+
+    @Test
+    public void skipStaleChange() throws IOException {
+        Member member = memberRepository.save(new Member(unique(), 10));
+        MemberWriteBehind writeBehind = start(Durability.MEMORY);
+        member.setAge(20);
+        writeBehind.save(member);
+
+        // when: flush 전에 다른 트랜잭션이 먼저 커밋
+        Member other = memberRepository.findById(member.getId()).get();
+        other.setAge(30);
+        memberRepository.save(other);
+
+        // then
+        assertThat(writeBehind.flush()).isEqualTo(0);
+        assertThat(writeBehind.getConflicts()).isEqualTo(1);
+        assertThat(memberRepository.findById(member.getId()).get().getAge()).isEqualTo(30);
+        writeBehind.close();
+    }
+
+    @Test
+    public void overwriteStaleChange() throws IOException {
+        Member member = memberRepository.save(new Member(unique(), 10));
+        MemberWriteBehind writeBehind = start(Durability.MEMORY, ConflictPolicy.OVERWRITE);
+        member.setAge(20);
+        writeBehind.save(member);
+        Member other = memberRepository.findById(member.getId()).get();
+        other.setAge(30);
+        memberRepository.save(other);
+
+        // then
+        assertThat(writeBehind.flush()).isEqualTo(1);
+        assertThat(memberRepository.findById(member.getId()).get().getAge()).isEqualTo(20);
+        writeBehind.close();
+    }
+
+    @Test
+    public void replayOfCommittedSegmentDoesNotRewind() throws IOException {
+        Member member = memberRepository.save(new Member(unique(), 10));
+        MemberWriteBehind crashed = start(Durability.JOURNAL_SYNC);
+        member.setAge(20);
+        crashed.save(member);
+        // 커밋 후 segment 를 지우기 전에 죽은 경우
+        Path backup = Files.createTempDirectory("write-behind-backup");
+        copy(journalDirectory, backup);
+        crashed.flush();
+        copy(backup, journalDirectory);
+        Member other = memberRepository.findById(member.getId()).get();
+        other.setAge(30);
+        memberRepository.save(other);
+
+        // when
+        MemberWriteBehind restarted = start(Durability.JOURNAL_SYNC);
+
+        // then
+        assertThat(restarted.getPending()).isEqualTo(1);
+        assertThat(restarted.flush()).isEqualTo(0);
+        assertThat(memberRepository.findById(member.getId()).get().getAge()).isEqualTo(30);
+        restarted.close();
+    }
+
+    @Test
+    public void deadLetterPoisonChange() throws IOException {
+        Member member = memberRepository.save(new Member(unique(), 10));
+        Member poison = memberRepository.save(new Member(unique(), 10));
+        MemberWriteBehind writeBehind = start(Durability.JOURNAL_SYNC);
+        member.setAge(20);
+        writeBehind.save(member);
+        // 없는 team 으로 바꾸면 FK 위반으로 매번 실패
+        writeBehind.save(MemberChange.of(poison.getId(), poison.getName(), 20, Long.MAX_VALUE, poison.getVersion()));
+
+        // when: 같은 batch 의 정상 변경은 반영되고 poison 만 남는다
+        assertThat(writeBehind.flush()).isEqualTo(1);
+        assertThat(writeBehind.getPending()).isEqualTo(1);
+        assertThat(memberRepository.findById(member.getId()).get().getAge()).isEqualTo(20);
+        assertThat(segmentCount()).isEqualTo(1);
+
+        // then: max-attempts 번째 실패에 dead letter, 저널도 비워진다
+        assertThat(writeBehind.flush()).isEqualTo(0);
+        assertThat(writeBehind.getPending()).isEqualTo(0);
+        assertThat(writeBehind.getDeadLetters()).isEqualTo(1);
+        assertThat(memberRepository.findById(poison.getId()).get().getAge()).isEqualTo(10);
+        assertThat(new String(Files.readAllBytes(journalDirectory.resolve("member-dead-letter.log")), StandardCharsets.UTF_8))
+                .contains("id=" + poison.getId());
+        writeBehind.close();
+        MemberWriteBehind restarted = start(Durability.JOURNAL_SYNC);
+        assertThat(restarted.getPending()).isEqualTo(0);
+        restarted.close();
+    }
+
+    private MemberWriteBehind start(Durability durability) {
+        return start(durability, ConflictPolicy.SKIP);
+    }
+
+    private MemberWriteBehind start(Durability durability, ConflictPolicy onConflict) {
+        WriteBehindProperties properties = new WriteBehindProperties();
+        properties.setDurability(durability);
+        properties.setOnConflict(onConflict);
+        properties.setJournalDirectory(journalDirectory.toString());
+        properties.setInterval(Duration.ofHours(1));
+        properties.setMaxAttempts(2);
+        MemberWriteBehind writeBehind = new MemberWriteBehind(memberRepository, em, transactionManager, properties);
+        writeBehind.start();
+        return writeBehind;
+    }
+
+    private void copy(Path from, Path to) throws IOException {
+        try (Stream<Path> segments = Files.list(from)) {
+            for (Path segment : (Iterable<Path>) segments::iterator) {
+                Files.copy(segment, to.resolve(segment.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> segments = Files.list(journalDirectory)) {
+            return segments.filter(path -> path.getFileName().toString().endsWith(".journal")).count();
+        }
+    }
+
+    private String unique() {
+        return "writeBehind-" + UUID.randomUUID();
+    }
+}